@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/**
+ * Key generation throughput for each {@link RngMode}. Comparing the single threaded and all
+ * threads results shows how generation scales with the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BLSKeyGeneratorBenchmark {
+  private static final byte[] SEED = new byte[32];
+
+  @Param({"shared", "per-thread"})
+  String rng;
+
+  @Param({"random", "eip2333"})
+  String derivation;
+
+  private BLSKeyGenerator keyGenerator;
+  private final AtomicInteger index = new AtomicInteger(0);
+
+  @Setup
+  public void setup() {
+    BLSKeyGenerator.useRngMode(new RngMode.Converter().convert(rng));
+    keyGenerator = "eip2333".equals(derivation) ? new BLSKeyGenerator(SEED) : new BLSKeyGenerator();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public BLSKeyPair generateSingleThread() {
+    return keyGenerator.generate(index.getAndIncrement());
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public BLSKeyPair generateAllThreads() {
+    return keyGenerator.generate(index.getAndIncrement());
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public String secureRandomStringAllThreads() {
+    return BLSKeyGenerator.secureRandomString();
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/**
+ * End-to-end time of the I/O bound stages on platform and virtual threads. Keys are generated
+ * once per trial, so each run only measures writing raw configuration files or inserting the keys
+ * into an in-process {@link MockVaultServer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExecutorModeBenchmark {
+  @Param({"1000", "10000", "100000"})
+  public int keys;
+
+  @Param({"PLATFORM", "VIRTUAL"})
+  public ExecutorMode executorMode;
+
+  private BLSKeyPair[] blsKeyPairs;
+  private MockVaultServer server;
+  private Path outputDir;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    final BLSKeyGenerator keyGenerator = new BLSKeyGenerator();
+    blsKeyPairs =
+        IntStream.range(0, keys)
+            .parallel()
+            .mapToObj(keyGenerator::generate)
+            .toArray(BLSKeyPair[]::new);
+
+    server =
+        new MockVaultServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                null,
+                MockVaultServer.Behaviour.ideal())
+            .start();
+  }
+
+  @Setup(Level.Iteration)
+  public void createOutputDir() throws IOException {
+    outputDir = Files.createTempDirectory("executor-mode-benchmark");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    server.close();
+  }
+
+  @Benchmark
+  public long rawConfigs() {
+    try (final Web3SignerYamlConfiguration configuration =
+        new Web3SignerYamlConfiguration(
+            outputDir,
+            new OutputWriter(
+                new DirectoryOutputTarget(outputDir),
+                OutputWriter.DEFAULT_IO_THREADS,
+                0,
+                executorMode))) {
+      return new KeyPipeline(executorMode)
+          .run(0, keys, i -> blsKeyPairs[i], configuration::createRawYamlConfigurationFile);
+    }
+  }
+
+  @Benchmark
+  public long vaultInserts() {
+    try (final HashicorpVaultClient client =
+        new HashicorpVaultClient(
+            server.getSecretsEndpoint(),
+            "token",
+            HashicorpVaultClient.DEFAULT_CONCURRENCY,
+            executorMode)) {
+      final long submitted =
+          new KeyPipeline(executorMode)
+              .run(
+                  0,
+                  keys,
+                  i -> blsKeyPairs[i],
+                  blsKeyPair -> {
+                    client.insertSecretAsync(blsKeyPair);
+                    return true;
+                  });
+      client.awaitInFlight();
+      return submitted;
+    }
+  }
+}
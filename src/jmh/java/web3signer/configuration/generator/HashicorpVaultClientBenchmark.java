@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.teku.bls.BLSKeyPair;
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+/**
+ * Blocking and windowed async vault insert throughput against an in-process {@link MockVaultServer}
+ * without injected faults.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class HashicorpVaultClientBenchmark {
+  private static final int KEY_COUNT = 1024;
+
+  @Param({"16", "64", "256"})
+  public int concurrency;
+
+  private MockVaultServer server;
+  private HashicorpVaultClient client;
+  private BLSKeyPair[] blsKeyPairs;
+  private final AtomicInteger index = new AtomicInteger(0);
+
+  @Setup
+  public void setup() throws IOException {
+    server =
+        new MockVaultServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                null,
+                MockVaultServer.Behaviour.ideal())
+            .start();
+
+    client =
+        new HashicorpVaultClient(
+            server.getSecretsEndpoint(),
+            "token",
+            concurrency);
+    final BLSKeyGenerator keyGenerator = new BLSKeyGenerator();
+    blsKeyPairs =
+        IntStream.range(0, KEY_COUNT)
+            .mapToObj(keyGenerator::generate)
+            .toArray(BLSKeyPair[]::new);
+  }
+
+  @TearDown
+  public void tearDown() {
+    client.close();
+    server.close();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Optional<BLSPublicKey> insertSecret() {
+    return client.insertSecret(blsKeyPairs[Math.floorMod(index.getAndIncrement(), KEY_COUNT)]);
+  }
+
+  /** Single submitting thread, concurrency comes from the client's in-flight window. */
+  @Benchmark
+  @OperationsPerInvocation(KEY_COUNT)
+  public void insertSecretAsync() {
+    for (final BLSKeyPair blsKeyPair : blsKeyPairs) {
+      client.insertSecretAsync(blsKeyPair);
+    }
+    client.awaitInFlight();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/** Keystore encryption cost at several PBKDF2 counters, and with a shared derived key. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class KeystoreBenchmark {
+  @Param({"16", "8192", "262144"})
+  int kdfCounter;
+
+  private KeystoreEncryptor keystoreEncryptor;
+  private KeystoreEncryptor sharedKdfEncryptor;
+  private BLSKeyPair blsKeyPair;
+
+  @Setup
+  public void setup() {
+    final KeystoreKdf keystoreKdf = KeystoreKdf.pbkdf2(kdfCounter, 1);
+    keystoreEncryptor =
+        KeystoreEncryptor.create(keystoreKdf, Web3SignerYamlConfiguration.KEYSTORE_PASSWORD);
+    sharedKdfEncryptor =
+        KeystoreEncryptor.sharedKdf(keystoreKdf, Web3SignerYamlConfiguration.KEYSTORE_PASSWORD);
+    blsKeyPair = new BLSKeyGenerator().generate(0);
+  }
+
+  @Benchmark
+  public byte[] encrypt() {
+    return keystoreEncryptor.encrypt(
+        blsKeyPair.getSecretKey().toBytes(), blsKeyPair.getPublicKey().toBytesCompressed());
+  }
+
+  @Benchmark
+  public byte[] sharedKdfEncrypt() {
+    return sharedKdfEncryptor.encrypt(
+        blsKeyPair.getSecretKey().toBytes(), blsKeyPair.getPublicKey().toBytesCompressed());
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time from launching the installed distribution until a small run has written its first
+ * configuration or keystore file, with the shipped AppCDS archive and with class data sharing
+ * off. The hashicorp subcommand inserts into an in-process {@link MockVaultServer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+  private static final Path LAUNCHER =
+      Path.of(
+          System.getProperty(
+              "startup.launcher",
+              "build/install/signer-configuration-generator/bin/signer-configuration-generator"));
+
+  @Param({"raw", "keystores", "hashicorp"})
+  public String subcommand;
+
+  @Param({"true", "false"})
+  public boolean cds;
+
+  private MockVaultServer server;
+  private Path tokenFile;
+  private Path outputDir;
+  private Process process;
+
+  @Setup(Level.Trial)
+  public void startVault() throws IOException {
+    if (!"hashicorp".equals(subcommand)) {
+      return;
+    }
+    server =
+        new MockVaultServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                null,
+                MockVaultServer.Behaviour.ideal())
+            .start();
+    tokenFile = Files.createTempFile("startup-benchmark", ".token");
+    Files.writeString(tokenFile, "token");
+  }
+
+  @Setup(Level.Invocation)
+  public void createOutputDir() throws IOException {
+    outputDir = Files.createTempDirectory("startup-benchmark");
+  }
+
+  @Benchmark
+  public Path timeToFirstFile() throws IOException, InterruptedException {
+    final List<String> command =
+        new ArrayList<>(
+            List.of(
+                LAUNCHER.toAbsolutePath().toString(),
+                subcommand,
+                "--count=10",
+                "--metrics-interval=0",
+                "--output=" + outputDir));
+    if (server != null) {
+      command.add("--url=" + server.getSecretsEndpoint());
+      command.add("--token-file=" + tokenFile);
+    }
+    final ProcessBuilder processBuilder =
+        new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD);
+    // run the launcher on this JVM, JAVA_OPTS follow its default options so -Xshare:off wins
+    processBuilder.environment().put("JAVA_HOME", System.getProperty("java.home"));
+    processBuilder.environment().put("JAVA_OPTS", cds ? "" : "-Xshare:off");
+    process = processBuilder.start();
+
+    while (true) {
+      try (final DirectoryStream<Path> files =
+          Files.newDirectoryStream(outputDir, "*.{yaml,json}")) {
+        final Iterator<Path> firstFile = files.iterator();
+        if (firstFile.hasNext()) {
+          return firstFile.next();
+        }
+      }
+      if (!process.isAlive()) {
+        throw new IllegalStateException(
+            subcommand + " exited with " + process.exitValue() + " before writing a file");
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void awaitExit() throws IOException, InterruptedException {
+    process.waitFor();
+    try (final Stream<Path> paths = Files.walk(outputDir)) {
+      for (final Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stopVault() throws IOException {
+    if (server != null) {
+      server.close();
+      Files.delete(tokenFile);
+    }
+  }
+}
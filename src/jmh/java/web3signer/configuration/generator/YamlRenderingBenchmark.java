@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/** Cost of rendering a single signer configuration file for each configuration type. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class YamlRenderingBenchmark {
+  private Web3SignerYamlConfiguration configuration;
+  private BLSKeyPair blsKeyPair;
+  private URI secretsEndpoint;
+
+  @Setup
+  public void setup() throws IOException {
+    configuration =
+        new Web3SignerYamlConfiguration(Files.createTempDirectory("yaml-rendering-benchmark"));
+    blsKeyPair = new BLSKeyGenerator().generate(0);
+    secretsEndpoint =
+        URI.create(
+            "http://localhost:8200/v1/secret/data/"
+                + blsKeyPair.getPublicKey().toBytesCompressed().toUnprefixedHexString());
+  }
+
+  @Benchmark
+  public byte[] raw() {
+    return configuration.getRawYamlConfiguration(blsKeyPair);
+  }
+
+  @Benchmark
+  public byte[] keystore() {
+    return configuration.getKeystoreYamlConfiguration(
+        Path.of("./keys"), Path.of(BLSKeyGenerator.secureRandomString() + ".json"));
+  }
+
+  @Benchmark
+  public byte[] hashicorp() {
+    return configuration.getHashicorpYamlConfiguration(
+        secretsEndpoint, "value", "token", null, null);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit adjusted by additive increase / multiplicative decrease. Every fast successful
+ * request grows the limit by {@code 1/limit}, i.e. by about one per round trip. Overload signals
+ * (throttling or error responses, or latency well above the best observed) halve it, at most once
+ * per {@link #DECREASE_INTERVAL_NANOS}, so that a burst of failures from one window counts once.
+ */
+public class AimdConcurrencyLimit {
+  private static final double BACKOFF_RATIO = 0.5;
+  private static final double LATENCY_TOLERANCE = 2.0;
+  // lets the latency baseline drift up so that one unusually fast response doesn't pin it
+  private static final double MIN_LATENCY_DECAY = 1.0005;
+  // latency below this is never treated as congestion, e.g. jitter on a local vault
+  private static final long MIN_CONGESTED_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+  private static final long DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final int maxLimit;
+  private final LongSupplier nanoClock;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private double limit;
+  private int inFlight;
+  private double minLatencyNanos = Double.MAX_VALUE;
+  private long lastDecreaseNanos;
+
+  public AimdConcurrencyLimit(final int maxLimit) {
+    this(maxLimit, System::nanoTime);
+  }
+
+  AimdConcurrencyLimit(final int maxLimit, final LongSupplier nanoClock) {
+    this.maxLimit = maxLimit;
+    this.nanoClock = nanoClock;
+    this.limit = maxLimit;
+    this.lastDecreaseNanos = nanoClock.getAsLong() - DECREASE_INTERVAL_NANOS;
+  }
+
+  /** Blocks until the number of requests in flight is below the current limit. */
+  public void acquire() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (inFlight >= (int) limit) {
+        changed.await();
+      }
+      inFlight++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void release() {
+    lock.lock();
+    try {
+      inFlight--;
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Records a successful request and its latency. */
+  public void onSuccess(final long latencyNanos) {
+    lock.lock();
+    try {
+      minLatencyNanos = Math.min(latencyNanos, minLatencyNanos * MIN_LATENCY_DECAY);
+      if (latencyNanos > MIN_CONGESTED_LATENCY_NANOS
+          && latencyNanos > minLatencyNanos * LATENCY_TOLERANCE) {
+        decrease();
+      } else {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+        changed.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Records a throttled or failed request. */
+  public void onOverload() {
+    lock.lock();
+    try {
+      decrease();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Blocks until no request is in flight. */
+  public void awaitIdle() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (inFlight > 0) {
+        changed.await();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  private void decrease() {
+    final long now = nanoClock.getAsLong();
+    if (now - lastDecreaseNanos < DECREASE_INTERVAL_NANOS) {
+      return;
+    }
+    lastDecreaseNanos = now;
+    limit = Math.max(1, limit * BACKOFF_RATIO);
+  }
+}
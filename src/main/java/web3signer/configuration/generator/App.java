@@ -18,7 +18,16 @@ import web3signer.configuration.util.VersionProvider;
 
 @Command(
     name = "signer-configuration-generator",
-    subcommands = {KeystoresSubcommand.class, HashicorpSubcommand.class, RawSubcommand.class},
+    subcommands = {
+      KeystoresSubcommand.class,
+      HashicorpSubcommand.class,
+      RawSubcommand.class,
+      MockVaultSubcommand.class,
+      ImportSubcommand.class,
+      ServeSubcommand.class,
+      GenerateKeysSubcommand.class,
+      LookupSubcommand.class
+    },
     mixinStandardHelpOptions = true,
     versionProvider = VersionProvider.class,
     description =
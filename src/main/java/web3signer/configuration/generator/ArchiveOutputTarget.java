@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams all generated files into a single tar, tar.gz or zip archive. The archive is written
+ * sequentially through large buffers on one file descriptor, with entry names matching the
+ * layout of the directory output.
+ */
+public class ArchiveOutputTarget implements OutputTarget {
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int TAR_BLOCK_SIZE = 512;
+  private static final int TAR_NAME_LENGTH = 100;
+  private static final int TAR_PREFIX_LENGTH = 155;
+
+  private final Path archiveFile;
+  private final OutputFormat format;
+  private final OutputStream out;
+  private final ZipOutputStream zipOut;
+  private final long modificationTime = System.currentTimeMillis();
+
+  public ArchiveOutputTarget(final Path archiveFile, final OutputFormat format)
+      throws IOException {
+    if (!format.isArchive()) {
+      throw new IllegalArgumentException("Not an archive format: " + format);
+    }
+    this.archiveFile = archiveFile;
+    this.format = format;
+    final Path parent = archiveFile.getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    final OutputStream fileOut =
+        new BufferedOutputStream(Files.newOutputStream(archiveFile), BUFFER_SIZE);
+    switch (format) {
+      case TAR_GZ ->
+          // tar headers are small writes, buffer them ahead of the deflater as well
+          out =
+              new BufferedOutputStream(
+                  new GZIPOutputStream(fileOut, BUFFER_SIZE), TAR_BLOCK_SIZE * 128);
+      case ZIP -> out = new ZipOutputStream(fileOut, StandardCharsets.UTF_8);
+      default -> out = fileOut;
+    }
+    this.zipOut = out instanceof ZipOutputStream zip ? zip : null;
+  }
+
+  @Override
+  public void write(final Path relativePath, final byte[] content) throws IOException {
+    final String entryName = entryName(relativePath);
+    if (zipOut != null) {
+      final ZipEntry entry = new ZipEntry(entryName);
+      entry.setLastModifiedTime(FileTime.fromMillis(modificationTime));
+      zipOut.putNextEntry(entry);
+      zipOut.write(content);
+      zipOut.closeEntry();
+      return;
+    }
+    out.write(tarHeader(entryName, content.length));
+    out.write(content);
+    final int padding = (TAR_BLOCK_SIZE - content.length % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE;
+    out.write(new byte[padding]);
+  }
+
+  @Override
+  public boolean isConcurrent() {
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (zipOut == null) {
+      // end of archive marker
+      out.write(new byte[TAR_BLOCK_SIZE * 2]);
+    }
+    out.close();
+  }
+
+  @Override
+  public String toString() {
+    return archiveFile.toString();
+  }
+
+  private static String entryName(final Path relativePath) {
+    final StringBuilder name = new StringBuilder();
+    for (final Path element : relativePath) {
+      if (!name.isEmpty()) {
+        name.append('/');
+      }
+      name.append(element);
+    }
+    return name.toString();
+  }
+
+  /** POSIX ustar header of a regular file entry. */
+  private byte[] tarHeader(final String entryName, final long size) {
+    final byte[] name = entryName.getBytes(StandardCharsets.UTF_8);
+    int split = 0;
+    if (name.length > TAR_NAME_LENGTH) {
+      // move leading directories into the prefix field
+      split = entryName.lastIndexOf('/', TAR_PREFIX_LENGTH);
+      if (split <= 0 || name.length - split - 1 > TAR_NAME_LENGTH) {
+        throw new IllegalArgumentException("Entry name too long for tar: " + entryName);
+      }
+    }
+
+    final byte[] header = new byte[TAR_BLOCK_SIZE];
+    if (split == 0) {
+      System.arraycopy(name, 0, header, 0, name.length);
+    } else {
+      System.arraycopy(name, split + 1, header, 0, name.length - split - 1);
+      System.arraycopy(name, 0, header, 345, split);
+    }
+    putOctal(header, 100, 8, 0644); // mode
+    putOctal(header, 108, 8, 0); // uid
+    putOctal(header, 116, 8, 0); // gid
+    putOctal(header, 124, 12, size);
+    putOctal(header, 136, 12, modificationTime / 1000);
+    header[156] = '0'; // regular file
+    putAscii(header, 257, "ustar\0");
+    putAscii(header, 263, "00");
+
+    // checksum is computed with its own field filled with spaces
+    Arrays.fill(header, 148, 156, (byte) ' ');
+    long checksum = 0;
+    for (final byte b : header) {
+      checksum += b & 0xff;
+    }
+    putOctal(header, 148, 7, checksum);
+    return header;
+  }
+
+  /** Zero padded octal number followed by a NUL terminator. */
+  private static void putOctal(
+      final byte[] header, final int offset, final int length, final long value) {
+    final String octal = Long.toOctalString(value);
+    if (octal.length() > length - 1) {
+      throw new IllegalArgumentException("Value too large for tar header: " + value);
+    }
+    final String padded = "0".repeat(length - 1 - octal.length()) + octal;
+    putAscii(header, offset, padded);
+    header[offset + length - 1] = 0;
+  }
+
+  private static void putAscii(final byte[] header, final int offset, final String value) {
+    final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(bytes, 0, header, offset, bytes.length);
+  }
+}
@@ -14,28 +14,113 @@ package web3signer.configuration.generator;
 
 import java.security.SecureRandom;
 import java.util.Base64;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.tuweni.bytes.Bytes32;
+import tech.pegasys.teku.bls.BLS;
 import tech.pegasys.teku.bls.BLSKeyPair;
+import tech.pegasys.teku.bls.BLSSecretKey;
 
-public class BLSKeyGenerator {
-  private static final SecureRandom secureRandom = new SecureRandom();
+public class BLSKeyGenerator implements KeySource {
+  private static final AtomicBoolean NATIVE_BLS_LOADING = new AtomicBoolean(false);
+  // created on first use, so that runs not drawing random bytes don't seed a SecureRandom
+  private static volatile RngMode rngMode = RngMode.SHARED;
+  private static volatile SecureRandomPool secureRandomPool;
   private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+  private static final Metrics.Stage METRICS = Metrics.stage("key-generation");
 
-  public Set<BLSKeyPair> generate(final int count) {
-    return IntStream.range(0, count)
-        .mapToObj(i -> BLSKeyPair.random(secureRandom))
-        .collect(Collectors.toSet());
+  private final Optional<Eip2333KeyDerivation> keyDerivation;
+
+  /** Generates random keys. */
+  public BLSKeyGenerator() {
+    this.keyDerivation = Optional.empty();
+    loadNativeBlsInBackground();
+  }
+
+  /** Derives keys from the seed using EIP-2333/EIP-2334 signing key paths. */
+  public BLSKeyGenerator(final byte[] seed) {
+    this.keyDerivation = Optional.of(new Eip2333KeyDerivation(seed));
+    loadNativeBlsInBackground();
+  }
+
+  @Override
+  public BLSKeyPair keyPair(final int index) {
+    return generate(index);
+  }
+
+  @Override
+  public boolean isDeterministic() {
+    return keyDerivation.isPresent();
+  }
+
+  /**
+   * Generate key pair for the index. Deterministic generators always return the key at {@code
+   * m/12381/3600/index/0/0}, random generators ignore the index.
+   */
+  public BLSKeyPair generate(final int index) {
+    final long startNanos = System.nanoTime();
+    final BLSKeyPair blsKeyPair =
+        keyDerivation
+            .map(
+                derivation ->
+                    new BLSKeyPair(
+                        BLSSecretKey.fromBytes(Bytes32.wrap(derivation.deriveSigningKey(index)))))
+            .orElseGet(() -> BLSKeyPair.random(getSecureRandom()));
+    METRICS.recordSince(startNanos);
+    return blsKeyPair;
+  }
+
+  /**
+   * Select how random bytes are drawn for keys, keystore salts/IVs and file names for the rest of
+   * the run.
+   */
+  public static synchronized void useRngMode(final RngMode rngMode) {
+    if (BLSKeyGenerator.rngMode != rngMode) {
+      BLSKeyGenerator.rngMode = rngMode;
+      secureRandomPool = null;
+    }
   }
 
   public static SecureRandom getSecureRandom() {
-    return secureRandom;
+    SecureRandomPool pool = secureRandomPool;
+    if (pool == null) {
+      synchronized (BLSKeyGenerator.class) {
+        pool = secureRandomPool;
+        if (pool == null) {
+          pool = new SecureRandomPool(rngMode);
+          secureRandomPool = pool;
+        }
+      }
+    }
+    return pool.get();
   }
 
   public static String secureRandomString() {
     var buffer = new byte[20];
-    secureRandom.nextBytes(buffer);
+    getSecureRandom().nextBytes(buffer);
     return encoder.encodeToString(buffer);
   }
+
+  /**
+   * Initialises teku's BLS class, which loads the jblst native library, on a background thread.
+   * Subcommands create their generator before scanning outputs or connecting to vault, so the
+   * library loads meanwhile instead of delaying the first key. Generating threads block on the
+   * class initialisation until it has finished. Subcommands without keys never load it.
+   */
+  private static void loadNativeBlsInBackground() {
+    if (!NATIVE_BLS_LOADING.compareAndSet(false, true)) {
+      return;
+    }
+    ExecutorMode.PLATFORM
+        .threadFactory("bls-native-loader")
+        .newThread(
+            () -> {
+              try {
+                Class.forName(BLS.class.getName(), true, BLS.class.getClassLoader());
+              } catch (final ClassNotFoundException e) {
+                throw new IllegalStateException("BLS implementation is not available", e);
+              }
+            })
+        .start();
+  }
 }
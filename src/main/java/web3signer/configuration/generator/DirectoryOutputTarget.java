@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Writes every file separately below an output directory. */
+public class DirectoryOutputTarget implements OutputTarget {
+  private final Path outputDir;
+  private final Map<Path, Boolean> createdDirectories = new ConcurrentHashMap<>();
+
+  public DirectoryOutputTarget(final Path outputDir) {
+    this.outputDir = outputDir;
+    try {
+      Files.createDirectories(outputDir);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void write(final Path relativePath, final byte[] content) throws IOException {
+    final Path file = outputDir.resolve(relativePath);
+    createParentDirectories(file);
+    Files.write(file, content);
+  }
+
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
+  private void createParentDirectories(final Path file) {
+    final Path parent = file.getParent();
+    if (parent == null || parent.equals(outputDir)) {
+      return;
+    }
+    // computeIfAbsent blocks other writers of the same directory until it exists
+    createdDirectories.computeIfAbsent(
+        parent,
+        dir -> {
+          try {
+            Files.createDirectories(dir);
+            return Boolean.TRUE;
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  @Override
+  public void close() {}
+
+  @Override
+  public String toString() {
+    return outputDir.toString();
+  }
+}
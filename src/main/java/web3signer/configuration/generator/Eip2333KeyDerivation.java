@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.text.Normalizer;
+import java.util.Arrays;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Hierarchical BLS key derivation as specified by <a
+ * href="https://eips.ethereum.org/EIPS/eip-2333">EIP-2333</a>, using the validator signing key
+ * path {@code m/12381/3600/i/0/0} from <a
+ * href="https://eips.ethereum.org/EIPS/eip-2334">EIP-2334</a>.
+ */
+public class Eip2333KeyDerivation {
+  private static final BigInteger CURVE_ORDER =
+      new BigInteger("73eda753299d7d483339d80809a1d80553bda402fffe5bfeffffffff00000001", 16);
+  private static final byte[] KEYGEN_SALT = "BLS-SIG-KEYGEN-SALT-".getBytes(US_ASCII);
+  private static final int HASH_LENGTH = 32;
+  private static final int LAMPORT_CHUNKS = 255;
+  private static final int SECRET_KEY_OKM_LENGTH = 48;
+  private static final int MIN_SEED_LENGTH = 32;
+  private static final int PURPOSE = 12381;
+  private static final int COIN_TYPE = 3600;
+
+  private final BigInteger coinTypeSecretKey;
+
+  public Eip2333KeyDerivation(final byte[] seed) {
+    final BigInteger masterSecretKey = deriveMasterSecretKey(seed);
+    this.coinTypeSecretKey =
+        deriveChildSecretKey(deriveChildSecretKey(masterSecretKey, PURPOSE), COIN_TYPE);
+  }
+
+  /** Returns the 32 byte signing key at {@code m/12381/3600/index/0/0}. */
+  public byte[] deriveSigningKey(final int index) {
+    BigInteger secretKey = deriveChildSecretKey(coinTypeSecretKey, index);
+    secretKey = deriveChildSecretKey(secretKey, 0);
+    secretKey = deriveChildSecretKey(secretKey, 0);
+    return toBytes(secretKey, HASH_LENGTH);
+  }
+
+  /** BIP-39 seed of a mnemonic, the mnemonic checksum is not validated. */
+  public static byte[] mnemonicToSeed(final String mnemonic, final String passphrase) {
+    final String normalizedMnemonic =
+        Normalizer.normalize(String.join(" ", mnemonic.trim().split("\\s+")), Normalizer.Form.NFKD);
+    final byte[] salt =
+        Normalizer.normalize("mnemonic" + passphrase, Normalizer.Form.NFKD).getBytes(UTF_8);
+    try {
+      final PBEKeySpec keySpec = new PBEKeySpec(normalizedMnemonic.toCharArray(), salt, 2048, 512);
+      return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512")
+          .generateSecret(keySpec)
+          .getEncoded();
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to derive seed from mnemonic", e);
+    }
+  }
+
+  static BigInteger deriveMasterSecretKey(final byte[] seed) {
+    if (seed.length < MIN_SEED_LENGTH) {
+      throw new IllegalArgumentException(
+          "Seed must be at least " + MIN_SEED_LENGTH + " bytes but was " + seed.length);
+    }
+    return hkdfModR(seed);
+  }
+
+  static BigInteger deriveChildSecretKey(final BigInteger parentSecretKey, final long index) {
+    return hkdfModR(parentSecretKeyToLamportPublicKey(parentSecretKey, index));
+  }
+
+  private static byte[] parentSecretKeyToLamportPublicKey(
+      final BigInteger parentSecretKey, final long index) {
+    final byte[] salt = toBytes(BigInteger.valueOf(index), 4);
+    final byte[] ikm = toBytes(parentSecretKey, HASH_LENGTH);
+    final byte[] notIkm = new byte[ikm.length];
+    for (int i = 0; i < ikm.length; i++) {
+      notIkm[i] = (byte) ~ikm[i];
+    }
+
+    // compressed_lamport_PK = SHA256(SHA256(lamport_0[0]) | ... | SHA256(lamport_1[254]))
+    final MessageDigest compressedLamportPublicKey = sha256();
+    appendLamportPublicKey(ikm, salt, compressedLamportPublicKey);
+    appendLamportPublicKey(notIkm, salt, compressedLamportPublicKey);
+    return compressedLamportPublicKey.digest();
+  }
+
+  private static void appendLamportPublicKey(
+      final byte[] ikm, final byte[] salt, final MessageDigest lamportPublicKey) {
+    final byte[] lamportSecretKey =
+        hkdfExpand(hkdfExtract(salt, ikm), new byte[0], HASH_LENGTH * LAMPORT_CHUNKS);
+    final MessageDigest chunkDigest = sha256();
+    for (int i = 0; i < LAMPORT_CHUNKS; i++) {
+      chunkDigest.update(lamportSecretKey, i * HASH_LENGTH, HASH_LENGTH);
+      lamportPublicKey.update(chunkDigest.digest());
+    }
+  }
+
+  private static BigInteger hkdfModR(final byte[] ikm) {
+    final byte[] ikmWithSuffix = Arrays.copyOf(ikm, ikm.length + 1); // IKM || I2OSP(0, 1)
+    final byte[] info = toBytes(BigInteger.valueOf(SECRET_KEY_OKM_LENGTH), 2);
+    byte[] salt = KEYGEN_SALT;
+    BigInteger secretKey = BigInteger.ZERO;
+    while (secretKey.signum() == 0) {
+      salt = sha256().digest(salt);
+      final byte[] okm =
+          hkdfExpand(hkdfExtract(salt, ikmWithSuffix), info, SECRET_KEY_OKM_LENGTH);
+      secretKey = new BigInteger(1, okm).mod(CURVE_ORDER);
+    }
+    return secretKey;
+  }
+
+  private static byte[] hkdfExtract(final byte[] salt, final byte[] ikm) {
+    return hmacSha256(salt).doFinal(ikm);
+  }
+
+  private static byte[] hkdfExpand(final byte[] prk, final byte[] info, final int length) {
+    final Mac mac = hmacSha256(prk);
+    final byte[] okm = new byte[length];
+    byte[] block = new byte[0];
+    int offset = 0;
+    for (int counter = 1; offset < length; counter++) {
+      mac.update(block);
+      mac.update(info);
+      mac.update((byte) counter);
+      block = mac.doFinal();
+      final int chunk = Math.min(block.length, length - offset);
+      System.arraycopy(block, 0, okm, offset, chunk);
+      offset += chunk;
+    }
+    return okm;
+  }
+
+  private static byte[] toBytes(final BigInteger value, final int length) {
+    final byte[] bytes = value.toByteArray();
+    final byte[] result = new byte[length];
+    final int copyLength = Math.min(bytes.length, length);
+    System.arraycopy(bytes, bytes.length - copyLength, result, length - copyLength, copyLength);
+    return result;
+  }
+
+  private static Mac hmacSha256(final byte[] key) {
+    try {
+      final Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(key, "HmacSHA256"));
+      return mac;
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 is not available", e);
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.concurrent.ThreadFactory;
+
+/** Kind of threads running I/O bound work such as file writes and vault requests. */
+public enum ExecutorMode {
+  /** Daemon platform threads, I/O stages run on small fixed pools. */
+  PLATFORM("platform"),
+  /** Virtual threads, I/O stages start a thread per task. */
+  VIRTUAL("virtual");
+
+  private final String label;
+
+  ExecutorMode(final String label) {
+    this.label = label;
+  }
+
+  /** Thread factory naming threads {@code <name>-1}, {@code <name>-2}, ... */
+  public ThreadFactory threadFactory(final String name) {
+    return switch (this) {
+      case PLATFORM -> Thread.ofPlatform().daemon().name(name + "-", 1).factory();
+      case VIRTUAL -> Thread.ofVirtual().name(name + "-", 1).factory();
+    };
+  }
+
+  @Override
+  public String toString() {
+    return label;
+  }
+
+  public static class Converter extends LabelledEnumConverter<ExecutorMode> {
+    public Converter() {
+      super(values());
+    }
+  }
+}
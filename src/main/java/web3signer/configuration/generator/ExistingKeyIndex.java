@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/**
+ * Keys already present in an output directory, so that a run can top it up without duplicating
+ * keys. The directory tree is walked in parallel on the common fork join pool and each file is
+ * only scanned for the few fields identifying its key instead of being parsed:
+ *
+ * <ul>
+ *   <li>keystore json: {@code pubkey}
+ *   <li>raw configuration: {@code privateKey}, compared as is to avoid deriving public keys
+ *   <li>hashicorp configuration: the secret name at the end of {@code keyPath}, or {@code keyName}
+ *       when several keys share a secret
+ * </ul>
+ *
+ * Keystore configuration files are skipped, their keystore json is indexed instead. Bundled
+ * multi-document files are scanned document by document.
+ */
+public class ExistingKeyIndex {
+  private static final Logger LOG = LoggerFactory.getLogger(ExistingKeyIndex.class);
+  private static final int FILES_PER_TASK = 256;
+  private static final String SINGLE_KEY_NAME = "value";
+
+  private final Set<String> publicKeys = ConcurrentHashMap.newKeySet();
+  private final Set<String> secretKeys = ConcurrentHashMap.newKeySet();
+  private final LongAdder filesScanned = new LongAdder();
+
+  private ExistingKeyIndex() {}
+
+  public static ExistingKeyIndex empty() {
+    return new ExistingKeyIndex();
+  }
+
+  /** Indexes the keys of all files below {@code outputDir}, which may not exist yet. */
+  public static ExistingKeyIndex scan(final Path outputDir) {
+    final ExistingKeyIndex index = new ExistingKeyIndex();
+    if (!Files.isDirectory(outputDir)) {
+      LOG.info("No existing keys to top up, {} is not a directory", outputDir);
+      return index;
+    }
+    final long startNanos = System.nanoTime();
+    ForkJoinPool.commonPool().invoke(index.new DirectoryScan(outputDir));
+    LOG.info(
+        "Indexed {} existing keys in {} files of {} in {} ms",
+        index.size(),
+        index.filesScanned.sum(),
+        outputDir,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    return index;
+  }
+
+  public int size() {
+    return publicKeys.size() + secretKeys.size();
+  }
+
+  public boolean contains(final BLSKeyPair blsKeyPair) {
+    return (!publicKeys.isEmpty()
+            && publicKeys.contains(
+                blsKeyPair.getPublicKey().toBytesCompressed().toUnprefixedHexString()))
+        || (!secretKeys.isEmpty()
+            && secretKeys.contains(blsKeyPair.getSecretKey().toBytes().toUnprefixedHexString()));
+  }
+
+  /**
+   * Indices to generate for the output directory to hold the keys of {@code target}. Random keys
+   * only count, so the first indices make up the missing keys. Deterministic keys are tied to their
+   * index, so the whole range is generated and keys already present are expected to be skipped.
+   *
+   * @return empty if the directory already holds enough keys
+   */
+  public Optional<IndexRange> rangeToGenerate(
+      final IndexRange target, final boolean deterministic) {
+    if (deterministic) {
+      return Optional.of(target);
+    }
+    final int missing = target.size() - size();
+    return missing > 0
+        ? Optional.of(new IndexRange(target.start(), target.start() + missing))
+        : Optional.empty();
+  }
+
+  private void scanFile(final Path file) {
+    final String name = file.getFileName().toString();
+    final boolean json = name.endsWith(".json");
+    if (!json && !name.endsWith(".yaml") && !name.endsWith(".yml")) {
+      return;
+    }
+    final String content;
+    try {
+      content = new String(Files.readAllBytes(file), ISO_8859_1);
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Unable to read " + file, e);
+    }
+    filesScanned.increment();
+    if (json) {
+      jsonStringField(content, "pubkey")
+          .map(ExistingKeyIndex::normalizeHex)
+          .ifPresent(publicKeys::add);
+    } else {
+      scanYaml(content);
+    }
+  }
+
+  private void scanYaml(final String content) {
+    String keyPath = null;
+    String keyName = null;
+    int lineStart = 0;
+    while (lineStart <= content.length()) {
+      int lineEnd = content.indexOf('\n', lineStart);
+      if (lineEnd < 0) {
+        lineEnd = content.length();
+      }
+      final String line = content.substring(lineStart, lineEnd).strip();
+      lineStart = lineEnd + 1;
+      if (line.startsWith("---")) {
+        addHashicorpKey(keyPath, keyName);
+        keyPath = null;
+        keyName = null;
+      } else if (line.startsWith("privateKey:")) {
+        secretKeys.add(normalizeHex(yamlValue(line)));
+      } else if (line.startsWith("keyPath:")) {
+        keyPath = yamlValue(line);
+      } else if (line.startsWith("keyName:")) {
+        keyName = yamlValue(line);
+      }
+    }
+    addHashicorpKey(keyPath, keyName);
+  }
+
+  private void addHashicorpKey(final String keyPath, final String keyName) {
+    if (keyPath == null) {
+      return;
+    }
+    if (keyName != null && !SINGLE_KEY_NAME.equals(keyName)) {
+      publicKeys.add(normalizeHex(keyName));
+    } else {
+      publicKeys.add(normalizeHex(keyPath.substring(keyPath.lastIndexOf('/') + 1)));
+    }
+  }
+
+  private static String yamlValue(final String line) {
+    final String value = line.substring(line.indexOf(':') + 1).strip();
+    if (value.length() >= 2
+        && (value.charAt(0) == '\'' || value.charAt(0) == '"')
+        && value.charAt(value.length() - 1) == value.charAt(0)) {
+      return value.substring(1, value.length() - 1);
+    }
+    return value;
+  }
+
+  private static Optional<String> jsonStringField(final String json, final String field) {
+    final int keyIndex = json.indexOf('"' + field + '"');
+    if (keyIndex < 0) {
+      return Optional.empty();
+    }
+    final int valueStart = json.indexOf('"', json.indexOf(':', keyIndex) + 1);
+    final int valueEnd = valueStart < 0 ? -1 : json.indexOf('"', valueStart + 1);
+    return valueEnd < 0 ? Optional.empty() : Optional.of(json.substring(valueStart + 1, valueEnd));
+  }
+
+  private static String normalizeHex(final String hex) {
+    final String unprefixed = hex.startsWith("0x") || hex.startsWith("0X") ? hex.substring(2) : hex;
+    return unprefixed.toLowerCase(Locale.ROOT);
+  }
+
+  /** Lists a directory, forking a scan per subdirectory and per batch of files. */
+  private class DirectoryScan extends RecursiveAction {
+    private final Path dir;
+
+    private DirectoryScan(final Path dir) {
+      this.dir = dir;
+    }
+
+    @Override
+    protected void compute() {
+      final List<RecursiveAction> tasks = new ArrayList<>();
+      List<Path> files = new ArrayList<>(FILES_PER_TASK);
+      try (final DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+        for (final Path entry : entries) {
+          if (Files.isDirectory(entry)) {
+            tasks.add(new DirectoryScan(entry));
+          } else {
+            files.add(entry);
+            if (files.size() == FILES_PER_TASK) {
+              tasks.add(new FileScan(files));
+              files = new ArrayList<>(FILES_PER_TASK);
+            }
+          }
+        }
+      } catch (final IOException e) {
+        throw new UncheckedIOException("Unable to list " + dir, e);
+      }
+      if (!files.isEmpty()) {
+        tasks.add(new FileScan(files));
+      }
+      invokeAll(tasks);
+    }
+  }
+
+  private class FileScan extends RecursiveAction {
+    private final List<Path> files;
+
+    private FileScan(final List<Path> files) {
+      this.files = files;
+    }
+
+    @Override
+    protected void compute() {
+      files.forEach(ExistingKeyIndex.this::scanFile);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+/** How generated keystores and configuration files are named. */
+public enum FileNaming {
+  /** Random url safe base64 names, one {@code SecureRandom} draw per file. */
+  RANDOM("random"),
+  /** The unprefixed hex public key, bundles are named after their first key. */
+  PUBKEY("pubkey");
+
+  private final String label;
+
+  FileNaming(final String label) {
+    this.label = label;
+  }
+
+  /** File name without extension for the key. */
+  public String fileName(final BLSPublicKey publicKey) {
+    return switch (this) {
+      case RANDOM -> BLSKeyGenerator.secureRandomString();
+      case PUBKEY -> publicKey.toBytesCompressed().toUnprefixedHexString();
+    };
+  }
+
+  @Override
+  public String toString() {
+    return label;
+  }
+
+  public static class Converter extends LabelledEnumConverter<FileNaming> {
+    public Converter() {
+      super(values());
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+
+@Command(
+    name = "generate-keys",
+    description =
+        "Generate BLS keys once into a binary key file, which the raw, keystores and hashicorp"
+            + " subcommands read with --key-source instead of generating keys.")
+public class GenerateKeysSubcommand implements Callable<Integer> {
+  private static final Logger LOG = LoggerFactory.getLogger(GenerateKeysSubcommand.class);
+
+  @Option(
+      names = "--output",
+      paramLabel = "<FILE>",
+      description = "Key file to write. Default: ${DEFAULT-VALUE}")
+  Path keyFile = Path.of("./keys.bin");
+
+  @Option(
+      names = "--count",
+      converter = PositiveIntegerConverter.class,
+      description = "Number of keys to generate. Default: ${DEFAULT-VALUE}")
+  int count = 50;
+
+  @Mixin KeyGenerationOptions keyGenerationOptions;
+
+  @Mixin MetricsOptions metricsOptions;
+
+  @Override
+  public Integer call() throws IOException {
+    final IndexRange range = keyGenerationOptions.indexRange(count);
+    final KeySource keySource = keyGenerationOptions.createKeySource();
+    LOG.info("Generating {} BLS Keys with indices {} into {}", range.size(), range, keyFile);
+    final long written;
+    try (final MetricsReporter metricsReporter = metricsOptions.startReporter();
+        final KeyFile.Writer writer = KeyFile.create(keyFile, range)) {
+      written =
+          new KeyPipeline()
+              .run(
+                  range.start(),
+                  range.end(),
+                  index -> new IndexedKeyPair(index, keySource.keyPair(index)),
+                  indexedKeyPair ->
+                      writer.write(indexedKeyPair.index(), indexedKeyPair.blsKeyPair()));
+    }
+    if (written != range.size()) {
+      // a partial file would hand out zeroed keys, so don't leave one behind
+      LOG.error("Only {} of {} keys were written, deleting {}", written, range.size(), keyFile);
+      Files.deleteIfExists(keyFile);
+      return -1;
+    }
+    LOG.info("Wrote {} keys to {}", written, keyFile);
+    return 0;
+  }
+}
@@ -12,18 +12,22 @@
  */
 package web3signer.configuration.generator;
 
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.Set;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
-import tech.pegasys.teku.bls.BLSKeyPair;
-import tech.pegasys.teku.bls.BLSPublicKey;
 
 @Command(name = "hashicorp")
 public class HashicorpSubcommand implements Callable<Integer> {
@@ -41,6 +45,15 @@ public class HashicorpSubcommand implements Callable<Integer> {
       description = "Number of keys to generate and insert. Default: ${DEFAULT-VALUE}")
   int count = 50;
 
+  @CommandLine.Mixin KeyGenerationOptions keyGenerationOptions;
+
+  @CommandLine.Mixin OutputOptions outputOptions;
+
+  @CommandLine.Mixin MetricsOptions metricsOptions;
+
+  /** {@link ImportSubcommand} when keys are imported rather than generated. */
+  @CommandLine.ParentCommand Object parent;
+
   @CommandLine.Option(
       names = {"--url"},
       description = "Hashicorp API URL. Default: ${DEFAULT-VALUE}")
@@ -58,6 +71,64 @@ public class HashicorpSubcommand implements Callable<Integer> {
       required = true)
   private Path tokenFile;
 
+  @CommandLine.Option(
+      names = "--vault-concurrency",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description = "Maximum number of vault inserts in flight. Default: ${DEFAULT-VALUE}")
+  private int vaultConcurrency = HashicorpVaultClient.DEFAULT_CONCURRENCY;
+
+  @CommandLine.Option(
+      names = "--vault-rate",
+      paramLabel = "<REQUESTS/S>",
+      description =
+          "Maximum sustained vault request rate including retries, 0 for no limit."
+              + " Default: ${DEFAULT-VALUE}")
+  private double vaultRate = 0;
+
+  @CommandLine.Option(
+      names = "--vault-max-retries",
+      paramLabel = "<NUMBER>",
+      description =
+          "Retries of a throttled (429/503), failed (5xx) or timed out insert before its key is"
+              + " dropped. Default: ${DEFAULT-VALUE}")
+  private int vaultMaxRetries = HashicorpVaultClient.DEFAULT_MAX_RETRIES;
+
+  @CommandLine.Option(
+      names = "--keys-per-secret",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description =
+          "Number of keys stored in each vault secret, keyed by public key. Configuration files"
+              + " point at the key's entry through keyName. Default: ${DEFAULT-VALUE}")
+  private int keysPerSecret = 1;
+
+  @CommandLine.Option(
+      names = "--journal",
+      paramLabel = "<FILE>",
+      description =
+          "Journal of inserted keys and written configuration files, used by --resume."
+              + " Default: <output>.journal next to the output directory")
+  private Path journalFile = null;
+
+  @CommandLine.Option(
+      names = "--resume",
+      description =
+          "Resume an interrupted run from its journal: write the missing configuration files and"
+              + " insert only the keys not inserted yet. Default: ${DEFAULT-VALUE}")
+  private boolean resume = false;
+
+  @CommandLine.Option(
+      names = "--verify",
+      converter = VerificationSample.Converter.class,
+      paramLabel = "all|sample:<pct>",
+      description =
+          "Read the secrets stored by this run back as their inserts complete and check that they"
+              + " hold the expected keys: all secrets or a percentage of them.")
+  private VerificationSample verification = null;
+
+  @CommandLine.Spec CommandLine.Model.CommandSpec spec;
+
   @CommandLine.Option(
       names = "--tls-knownhosts-file",
       description = "Path to tls known hosts file that needs to go in the configuration file.")
@@ -65,28 +136,197 @@ public class HashicorpSubcommand implements Callable<Integer> {
 
   @Override
   public Integer call() throws Exception {
+    if (vaultRate < 0 || vaultMaxRetries < 0) {
+      throw new CommandLine.ParameterException(
+          spec.commandLine(), "--vault-rate and --vault-max-retries must not be negative");
+    }
+    if (resume && outputOptions.getOutputFormat().isArchive()) {
+      // the archive would be rewritten, losing the configuration files of the previous run
+      throw new CommandLine.ParameterException(
+          spec.commandLine(), "--resume requires --output-format=dir");
+    }
+    if (resume && outputOptions.isTopUp()) {
+      throw new CommandLine.ParameterException(
+          spec.commandLine(), "--top-up can't be combined with --resume");
+    }
+    final ImportSubcommand importSubcommand =
+        parent instanceof ImportSubcommand importParent ? importParent : null;
+    if (resume && importSubcommand != null) {
+      // journal indices are only stable for generated keys, not for the order keystores decrypt
+      throw new CommandLine.ParameterException(
+          spec.commandLine(), "--resume is not supported when importing keystores");
+    }
     final String token = Files.readString(tokenFile);
-    final HashicorpVaultClient hashicorpVaultClient = new HashicorpVaultClient(hashicorpUrl, token);
+    final IndexRange indexRange = keyGenerationOptions.indexRange(count);
+    final KeySource keySource = keyGenerationOptions.createKeySource();
+    final ExistingKeyIndex existingKeys = outputOptions.indexExistingKeys(outputDir);
+    final Optional<IndexRange> range =
+        existingKeys.rangeToGenerate(indexRange, keySource.isDeterministic());
+    final HashicorpVaultClient hashicorpVaultClient =
+        new HashicorpVaultClient(
+            hashicorpUrl,
+            token,
+            vaultConcurrency,
+            vaultRate,
+            vaultMaxRetries,
+            keysPerSecret,
+            outputOptions.getExecutorMode());
     if (!hashicorpVaultClient.isInitialized()) {
+      hashicorpVaultClient.close();
       return -1;
     }
 
-    LOG.info("Generating {} BLS Keys", count);
-    final Set<BLSKeyPair> blsKeyPairs = new BLSKeyGenerator().generate(count);
+    try (hashicorpVaultClient;
+        final MetricsReporter metricsReporter = metricsOptions.startReporter();
+        final InsertJournal journal = openJournal(indexRange);
+        final Web3SignerYamlConfiguration configuration =
+            new Web3SignerYamlConfiguration(
+                outputDir,
+                outputOptions.createOutputWriter(outputDir),
+                outputOptions.getBundleSize(),
+                outputOptions.getFileNaming())) {
+      if (resume || outputOptions.isTopUp()) {
+        configuration.keepExistingManifest();
+      }
+      // the manifest is only written once the run completes, an interrupted run leaves none
+      journal
+          .takeConfigured()
+          .forEach(
+              configured ->
+                  configuration.addToManifest(
+                      configured.location(), hashicorpUrl, configured.configFile()));
+      if (verification != null) {
+        hashicorpVaultClient.verifyInsertedSecrets(verification::includes);
+      }
+      final Collection<VaultKeyLocation> unconfigured =
+          journal.getUnconfigured().stream().map(InsertJournal.Entry::location).toList();
+      if (!unconfigured.isEmpty()) {
+        LOG.info(
+            "Creating {} configuration files missing from the previous run", unconfigured.size());
+        configuration.createHashicorpYamlConfigurationFiles(
+            unconfigured,
+            hashicorpUrl,
+            token,
+            tlsKnownHosts,
+            overrideVaultHost,
+            (location, configFile) -> journal.recordConfigured(location.publicKey(), configFile));
+        if (verification != null) {
+          // stored by the previous run, only the keys in flight when it was interrupted
+          unconfigured.stream()
+              .filter(location -> verification.includes(location.secretName()))
+              .collect(Collectors.groupingBy(VaultKeyLocation::secretName))
+              .forEach(hashicorpVaultClient::verifySecretAsync);
+        }
+      }
 
-    LOG.info("Inserting into hashicorp...");
-    final List<BLSPublicKey> publicKeys = hashicorpVaultClient.insertSecret(blsKeyPairs);
-    LOG.info("Data inserted into vault: {}", publicKeys.size());
-    LOG.info("Creating Web3Signer configuration files in {}", outputDir);
+      // consumers only hand keys to the async client, which blocks them while its window is full.
+      // Each configuration file is queued as soon as its key is stored, so uploads and file
+      // writes overlap and only the keys in flight are held in memory.
+      final Predicate<IndexedKeyPair> insert =
+          indexedKeyPair -> {
+            if (existingKeys.contains(indexedKeyPair.blsKeyPair())) {
+              return false;
+            }
+            hashicorpVaultClient.insertSecretAsync(
+                indexedKeyPair.blsKeyPair(),
+                location -> {
+                  journal.recordInserted(indexedKeyPair.index(), location);
+                  configuration.createHashicorpYamlConfigurationFile(
+                      location,
+                      hashicorpUrl,
+                      token,
+                      tlsKnownHosts,
+                      overrideVaultHost,
+                      configFile -> journal.recordConfigured(location.publicKey(), configFile));
+                });
+            return true;
+          };
+      if (importSubcommand != null) {
+        LOG.info(
+            "Inserting imported keys into hashicorp and creating configuration files in {}",
+            outputDir);
+        final AtomicInteger importedIndex = new AtomicInteger();
+        importSubcommand.importKeys(
+            Runtime.getRuntime().availableProcessors(),
+            outputOptions.getExecutorMode(),
+            blsKeyPair ->
+                insert.test(new IndexedKeyPair(importedIndex.getAndIncrement(), blsKeyPair)));
+      } else {
+        // with random keys the index only counts keys, so missing indices get fresh keys on resume
+        final Supplier<IntStream> pendingIndices =
+            () ->
+                range.stream()
+                    .flatMapToInt(pending -> IntStream.range(pending.start(), pending.end()))
+                    .filter(index -> !journal.isInserted(index));
+        LOG.info(
+            "Generating {} BLS Keys, inserting into hashicorp and creating configuration files in {}",
+            pendingIndices.get().count(),
+            outputDir);
+        new KeyPipeline(outputOptions.getExecutorMode())
+            .run(
+                pendingIndices.get().iterator(),
+                index -> new IndexedKeyPair(index, keySource.keyPair(index)),
+                insert);
+      }
+      hashicorpVaultClient.awaitInFlight();
+      hashicorpVaultClient.logSummary();
 
-    if (publicKeys.isEmpty()) {
-      LOG.warn("No keys to create in output directory");
-    } else {
-      new Web3SignerYamlConfiguration(outputDir)
-          .createHashicorpYamlConfigurationFiles(
-              publicKeys, hashicorpUrl, token, tlsKnownHosts, overrideVaultHost);
+      final long dropped = hashicorpVaultClient.getDroppedCount();
+      if (dropped == 0) {
+        // the configuration files are written as the configuration closes, before the journal.
+        // A resume can't repair keys failing verification, so the journal goes either way
+        journal.deleteOnCloseIfComplete();
+      } else {
+        LOG.warn("{} keys were dropped, run again with --resume to insert them", dropped);
+      }
+      if (verification != null && !logVerification(hashicorpVaultClient)) {
+        return -1;
+      }
     }
 
     return 0;
   }
+
+  /**
+   * Logs the keys read back as their inserts completed.
+   *
+   * @return true if every key was found with its secret key
+   */
+  private boolean logVerification(final HashicorpVaultClient hashicorpVaultClient) {
+    final long unverified = hashicorpVaultClient.getUnverifiedCount();
+    LOG.info(
+        "Verified {} keys ({}){}",
+        hashicorpVaultClient.getVerifiedCount(),
+        verification,
+        unverified == 0 ? "" : ", " + unverified + " missing or mismatched");
+    return unverified == 0;
+  }
+
+  /** Opens the journal, which a resumed run must share the key range and vault layout with. */
+  private InsertJournal openJournal(final IndexRange indexRange) throws IOException {
+    final String parameters =
+        "count="
+            + indexRange.size()
+            + " range="
+            + indexRange.start()
+            + "-"
+            + indexRange.end()
+            + " keys-per-secret="
+            + keysPerSecret
+            + " url="
+            + hashicorpUrl;
+    try {
+      return InsertJournal.open(journalPath(), resume, parameters);
+    } catch (final IllegalArgumentException e) {
+      throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+    }
+  }
+
+  private Path journalPath() {
+    if (journalFile != null) {
+      return journalFile;
+    }
+    final Path dir = outputDir.toAbsolutePath().normalize();
+    return dir.resolveSibling(dir.getFileName() + ".journal");
+  }
 }
@@ -12,32 +12,124 @@
  */
 package web3signer.configuration.generator;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.apache.tuweni.bytes.Bytes32;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tech.pegasys.teku.bls.BLSKeyPair;
 import tech.pegasys.teku.bls.BLSPublicKey;
+import tech.pegasys.teku.bls.BLSSecretKey;
 
-public class HashicorpVaultClient {
+/**
+ * Inserts secrets into Hashicorp Vault's KV v2 engine. Inserts are sent asynchronously, so
+ * throughput is bounded by Vault rather than by the number of threads submitting keys. With {@link
+ * ExecutorMode#VIRTUAL} responses are handled on a virtual thread per request instead of the HTTP
+ * client's default thread pool.
+ *
+ * <p>To keep a shared Vault from tipping over, requests pass an optional token bucket and an AIMD
+ * concurrency limit of at most {@code concurrency} requests in flight, which backs off on
+ * throttling, server errors and rising latency. Throttled, failed and timed out requests are
+ * retried with exponential backoff and full jitter, honouring {@code Retry-After}.
+ *
+ * <p>By default each key is stored in its own secret, named by the public key, under the entry
+ * {@code value}. With {@code keysPerSecret > 1} keys are batched into secrets named by the first
+ * public key of the batch, with one entry per public key, cutting the number of requests.
+ *
+ * <p>Stored secrets can be read back through the same window to check that they hold the expected
+ * keys.
+ */
+public class HashicorpVaultClient implements AutoCloseable {
   private static final Logger LOG = LoggerFactory.getLogger(HashicorpVaultClient.class);
+  public static final int DEFAULT_CONCURRENCY = 64;
+  public static final int DEFAULT_MAX_RETRIES = 5;
+  private static final long BASE_BACKOFF_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 10_000;
+  private static final String SINGLE_KEY_NAME = "value";
+  private static final Metrics.Stage INSERT_METRICS = Metrics.stage("vault-insert");
+  private static final Metrics.Stage READ_METRICS = Metrics.stage("vault-read");
 
-  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private final HttpClient httpClient;
+  private final ExecutorService responseExecutor;
   private final URI hashicorpApiEndpoint;
   private final String token;
   private final URI hashicorpInitEndpoint;
+  private final TokenBucketRateLimiter rateLimiter;
+  private final AimdConcurrencyLimit concurrencyLimit;
+  private final int maxRetries;
+  private final int keysPerSecret;
+  private List<PendingKey> batch = new ArrayList<>();
+  private final LongAdder stored = new LongAdder();
+  private final LongAdder retried = new LongAdder();
+  private final LongAdder throttled = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder verified = new LongAdder();
+  private final LongAdder unverified = new LongAdder();
+  private volatile Predicate<String> verifiedSecrets = secretName -> false;
 
   public HashicorpVaultClient(final URI hashicorpApiEndpoint, final String token) {
+    this(hashicorpApiEndpoint, token, DEFAULT_CONCURRENCY);
+  }
+
+  public HashicorpVaultClient(
+      final URI hashicorpApiEndpoint, final String token, final int concurrency) {
+    this(hashicorpApiEndpoint, token, concurrency, ExecutorMode.PLATFORM);
+  }
+
+  public HashicorpVaultClient(
+      final URI hashicorpApiEndpoint,
+      final String token,
+      final int concurrency,
+      final ExecutorMode executorMode) {
+    this(hashicorpApiEndpoint, token, concurrency, 0, DEFAULT_MAX_RETRIES, 1, executorMode);
+  }
+
+  /**
+   * @param concurrency maximum number of requests in flight
+   * @param requestsPerSecond sustained request rate, 0 for no limit
+   * @param maxRetries retries of a throttled or failed insert before its keys are dropped
+   * @param keysPerSecret number of keys stored in each secret
+   */
+  public HashicorpVaultClient(
+      final URI hashicorpApiEndpoint,
+      final String token,
+      final int concurrency,
+      final double requestsPerSecond,
+      final int maxRetries,
+      final int keysPerSecret,
+      final ExecutorMode executorMode) {
+    this.responseExecutor =
+        executorMode == ExecutorMode.VIRTUAL
+            ? Executors.newThreadPerTaskExecutor(executorMode.threadFactory("vault-client"))
+            : null;
+    this.httpClient =
+        responseExecutor == null
+            ? HttpClient.newHttpClient()
+            : HttpClient.newBuilder().executor(responseExecutor).build();
     this.hashicorpApiEndpoint = hashicorpApiEndpoint;
     this.token = token;
+    this.rateLimiter = new TokenBucketRateLimiter(requestsPerSecond);
+    this.concurrencyLimit = new AimdConcurrencyLimit(concurrency);
+    this.maxRetries = maxRetries;
+    this.keysPerSecret = keysPerSecret;
     hashicorpInitEndpoint =
         URI.create(
             String.format(
@@ -65,56 +157,424 @@ public class HashicorpVaultClient {
     return false;
   }
 
-  public List<BLSPublicKey> insertSecret(final Set<BLSKeyPair> blsKeys) {
-    final AtomicInteger count = new AtomicInteger(0);
-    List<BLSPublicKey> blsPublicKeys =
-        blsKeys.parallelStream()
-            .map(
-                blsKeyPair -> {
-                  System.out.printf("\rInserting key in vault: %d ...", count.incrementAndGet());
-                  final BLSPublicKey publicKey = blsKeyPair.getPublicKey();
-                  final String publicKeyHex = publicKey.toBytesCompressed().toUnprefixedHexString();
-
-                  final String privateKeyHex =
-                      blsKeyPair.getSecretKey().toBytes().toUnprefixedHexString();
-                  final URI postURI =
-                      URI.create(hashicorpApiEndpoint.toString() + "/data/" + publicKeyHex)
-                          .normalize();
-                  LOG.debug("Submitting to {}", postURI);
-
-                  final HttpRequest httpRequestPost = buildHttpRequest(privateKeyHex, postURI);
-                  try {
-
-                    final HttpResponse<String> response =
-                        httpClient.send(httpRequestPost, HttpResponse.BodyHandlers.ofString());
-                    final int statusCode = response.statusCode();
-                    if (statusCode == 200) {
-                      return publicKey;
-                    } else {
-                      LOG.warn(
-                          "Invalid status code from Hashicorp for {}: {}", postURI, statusCode);
-                      LOG.warn(response.body());
-                      return null;
-                    }
-
-                  } catch (IOException | InterruptedException e) {
-                    LOG.error("Posting secret to {} failed: {}", postURI, e.getMessage());
-                    return null;
-                  }
-                })
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
-    System.out.println("\nData inserted in vault.");
-    return blsPublicKeys;
-  }
-
-  private HttpRequest buildHttpRequest(final String privateKeyHex, final URI postURI) {
+  /**
+   * Insert the private key in vault and wait for the response, without waiting for its batch to
+   * fill up.
+   *
+   * @return the public key if the secret was inserted, otherwise empty.
+   */
+  public Optional<BLSPublicKey> insertSecret(final BLSKeyPair blsKeyPair) {
+    final CompletableFuture<Optional<BLSPublicKey>> result = insertSecretAsync(blsKeyPair);
+    flush();
+    return result.join();
+  }
+
+  public CompletableFuture<Optional<BLSPublicKey>> insertSecretAsync(final BLSKeyPair blsKeyPair) {
+    return insertSecretAsync(blsKeyPair, location -> {});
+  }
+
+  /**
+   * Insert the private key in vault without waiting for the response. The key is sent once its
+   * batch is complete, which blocks while the rate limit or the in-flight window is exhausted. A
+   * batch stays in the window while its retries are pending.
+   *
+   * @param onInserted called with the key's location once it is stored, before the insert leaves
+   *     the in-flight window, so it has run for all inserts once {@link #awaitInFlight()} returns
+   * @return future completed with the public key if the secret was inserted, otherwise empty. The
+   *     future is never completed exceptionally.
+   */
+  public CompletableFuture<Optional<BLSPublicKey>> insertSecretAsync(
+      final BLSKeyPair blsKeyPair, final Consumer<VaultKeyLocation> onInserted) {
+    final PendingKey pendingKey =
+        new PendingKey(blsKeyPair, onInserted, new CompletableFuture<>());
+    final List<PendingKey> fullBatch;
+    synchronized (this) {
+      batch.add(pendingKey);
+      if (batch.size() < keysPerSecret) {
+        return pendingKey.result();
+      }
+      fullBatch = batch;
+      batch = new ArrayList<>(keysPerSecret);
+    }
+    submit(fullBatch);
+    return pendingKey.result();
+  }
+
+  /**
+   * Reads the secrets selected by {@code secretNames} back as soon as their insert completes, see
+   * {@link #verifySecretAsync}. The read takes over the insert's slot of the in-flight window, so
+   * it is done once {@link #awaitInFlight()} returns and no stored key waits for its read.
+   */
+  public void verifyInsertedSecrets(final Predicate<String> secretNames) {
+    this.verifiedSecrets = secretNames;
+  }
+
+  /** Sends the keys of a partially filled batch. */
+  public void flush() {
+    final List<PendingKey> partialBatch;
+    synchronized (this) {
+      if (batch.isEmpty()) {
+        return;
+      }
+      partialBatch = batch;
+      batch = new ArrayList<>(keysPerSecret);
+    }
+    submit(partialBatch);
+  }
+
+  private record PendingKey(
+      BLSKeyPair blsKeyPair,
+      Consumer<VaultKeyLocation> onInserted,
+      CompletableFuture<Optional<BLSPublicKey>> result) {}
+
+  private record PendingInsert(HttpRequest request, String secretName, List<PendingKey> keys) {}
+
+  private void submit(final List<PendingKey> keys) {
+    final String secretName =
+        keys.get(0).blsKeyPair().getPublicKey().toBytesCompressed().toUnprefixedHexString();
+    final URI postURI =
+        URI.create(hashicorpApiEndpoint.toString() + "/data/" + secretName).normalize();
+    LOG.debug("Submitting {} keys to {}", keys.size(), postURI);
+
+    final PendingInsert insert =
+        new PendingInsert(buildHttpRequest(secretData(keys), postURI), secretName, keys);
+    try {
+      rateLimiter.acquire();
+      concurrencyLimit.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.error("Posting secret to {} interrupted", postURI);
+      complete(insert, false, false);
+      return;
+    }
+    send(
+        insert.request(),
+        0,
+        INSERT_METRICS,
+        response -> complete(insert, response != null, true));
+  }
+
+  /**
+   * Sends a request that holds a permit of the in-flight window, retrying throttled, failed and
+   * timed out attempts. The permit is released by {@code onDone}.
+   *
+   * @param metrics stage recording the latency of successful attempts and the failed ones
+   * @param onDone called with the successful response, or {@code null} once retries are exhausted
+   */
+  private void send(
+      final HttpRequest request,
+      final int attempt,
+      final Metrics.Stage metrics,
+      final Consumer<HttpResponse<String>> onDone) {
+    final long startNanos = System.nanoTime();
+    httpClient
+        .sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        .whenComplete(
+            (response, error) -> {
+              final boolean succeeded;
+              try {
+                if (scheduleRetry(
+                    request,
+                    attempt,
+                    response,
+                    error,
+                    System.nanoTime() - startNanos,
+                    metrics,
+                    onDone)) {
+                  return;
+                }
+                succeeded = error == null && response.statusCode() == 200;
+              } catch (final RuntimeException e) {
+                LOG.error("Error processing response from {}: {}", request.uri(), e.getMessage());
+                onDone.accept(null);
+                return;
+              }
+              onDone.accept(succeeded ? response : null);
+            });
+  }
+
+  /** @return true if the request is sent again after a backoff */
+  private boolean scheduleRetry(
+      final HttpRequest request,
+      final int attempt,
+      final HttpResponse<String> response,
+      final Throwable error,
+      final long latencyNanos,
+      final Metrics.Stage metrics,
+      final Consumer<HttpResponse<String>> onDone) {
+    final URI uri = request.uri();
+    if (error == null && response.statusCode() == 200) {
+      metrics.record(latencyNanos);
+      concurrencyLimit.onSuccess(latencyNanos);
+      return false;
+    }
+    metrics.recordFailure();
+
+    final boolean throttledResponse =
+        error == null && (response.statusCode() == 429 || response.statusCode() == 503);
+    final boolean retryable = error != null || throttledResponse || response.statusCode() >= 500;
+    if (throttledResponse) {
+      throttled.increment();
+    }
+    if (retryable) {
+      concurrencyLimit.onOverload();
+    }
+
+    if (retryable && attempt < maxRetries) {
+      retried.increment();
+      final long delayNanos = Math.max(backoffNanos(attempt, response), rateLimiter.reserve());
+      LOG.debug(
+          "Retrying {} in {} ms: {}",
+          uri,
+          TimeUnit.NANOSECONDS.toMillis(delayNanos),
+          error != null ? error.getMessage() : response.statusCode());
+      CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS)
+          .execute(() -> send(request, attempt + 1, metrics, onDone));
+      return true;
+    }
+
+    if (error != null) {
+      LOG.error("Request to {} failed: {}", uri, error.getMessage());
+    } else {
+      LOG.warn("Invalid status code from Hashicorp for {}: {}", uri, response.statusCode());
+      LOG.warn(response.body());
+    }
+    return false;
+  }
+
+  private void complete(
+      final PendingInsert insert, final boolean inserted, final boolean releaseWindow) {
+    final List<CompletableFuture<Optional<BLSPublicKey>>> results = new ArrayList<>();
+    final List<Optional<BLSPublicKey>> values = new ArrayList<>();
+    final List<VaultKeyLocation> locations = new ArrayList<>(insert.keys().size());
+    for (final PendingKey key : insert.keys()) {
+      final BLSPublicKey publicKey = key.blsKeyPair().getPublicKey();
+      boolean processed = inserted;
+      if (inserted) {
+        final VaultKeyLocation location =
+            new VaultKeyLocation(publicKey, insert.secretName(), keyName(key));
+        locations.add(location);
+        try {
+          key.onInserted().accept(location);
+        } catch (final RuntimeException e) {
+          LOG.error("Error processing inserted key {}: {}", publicKey, e.getMessage());
+          processed = false;
+        }
+      }
+      (processed ? stored : dropped).increment();
+      results.add(key.result());
+      values.add(processed ? Optional.of(publicKey) : Optional.empty());
+    }
+    if (inserted && releaseWindow && verifiedSecrets.test(insert.secretName())) {
+      // the read is paced by the rate limit like a retry, as blocking here would stall responses
+      final long delayNanos = rateLimiter.reserve();
+      CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS)
+          .execute(
+              () -> sendVerification(insert.secretName(), locations, new CompletableFuture<>()));
+    } else if (releaseWindow) {
+      concurrencyLimit.release();
+    }
+    for (int i = 0; i < results.size(); i++) {
+      results.get(i).complete(values.get(i));
+    }
+  }
+
+  /** Exponential backoff with full jitter, at least as long as a {@code Retry-After} header. */
+  private static long backoffNanos(final int attempt, final HttpResponse<String> response) {
+    final long capMillis = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << attempt);
+    final long jitteredMillis = ThreadLocalRandom.current().nextLong(capMillis + 1);
+    final long retryAfterMillis =
+        response == null
+            ? 0
+            : response
+                .headers()
+                .firstValue("Retry-After")
+                .map(HashicorpVaultClient::parseRetryAfterMillis)
+                .orElse(0L);
+    return TimeUnit.MILLISECONDS.toNanos(Math.max(jitteredMillis, retryAfterMillis));
+  }
+
+  private static long parseRetryAfterMillis(final String retryAfter) {
+    try {
+      return Math.min(MAX_BACKOFF_MILLIS, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter)));
+    } catch (final NumberFormatException e) {
+      // HTTP dates aren't worth honouring for a load generator
+      return 0;
+    }
+  }
+
+  /** Sends the last partial batch and waits until every insert has completed, including retries. */
+  public void awaitInFlight() {
+    flush();
+    try {
+      concurrencyLimit.awaitIdle();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for vault inserts", e);
+    }
+  }
+
+  /**
+   * Reads a secret back and checks that the entry of each key holds a secret key deriving the
+   * key's public key. Blocks while the rate limit or the in-flight window is exhausted, like
+   * inserts, and is retried the same way.
+   *
+   * @param keys keys stored in the secret
+   * @return future completed with the number of matching keys, never completed exceptionally
+   */
+  public CompletableFuture<Integer> verifySecretAsync(
+      final String secretName, final List<VaultKeyLocation> keys) {
+    final CompletableFuture<Integer> result = new CompletableFuture<>();
+    try {
+      rateLimiter.acquire();
+      concurrencyLimit.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.error("Reading secret {} interrupted", secretName);
+      unverified.add(keys.size());
+      result.complete(0);
+      return result;
+    }
+    sendVerification(secretName, keys, result);
+    return result;
+  }
+
+  /** Reads a secret back on a permit of the in-flight window, which is released once done. */
+  private void sendVerification(
+      final String secretName,
+      final List<VaultKeyLocation> keys,
+      final CompletableFuture<Integer> result) {
+    final URI getURI =
+        URI.create(hashicorpApiEndpoint.toString() + "/data/" + secretName).normalize();
+    final HttpRequest request =
+        HttpRequest.newBuilder(getURI).header("X-Vault-Token", token).GET().build();
+    send(
+        request,
+        0,
+        READ_METRICS,
+        response -> {
+          int matching = 0;
+          try {
+            matching = response == null ? 0 : Json.countMatchingKeys(response.body(), keys);
+          } catch (final RuntimeException e) {
+            LOG.error("Error verifying secret {}: {}", getURI, e.getMessage());
+          } finally {
+            verified.add(matching);
+            unverified.add(keys.size() - matching);
+            concurrencyLimit.release();
+          }
+          result.complete(matching);
+        });
+  }
+
+  /** Number of keys not stored after exhausting their retries. */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /** Number of keys read back whose stored secret key matched. */
+  public long getVerifiedCount() {
+    return verified.sum();
+  }
+
+  /** Number of keys read back that were missing, unreadable or held a different secret key. */
+  public long getUnverifiedCount() {
+    return unverified.sum();
+  }
+
+  /** Logs how many keys were stored, retried, throttled by vault and dropped. */
+  public void logSummary() {
+    LOG.info(
+        "Vault inserts: {} stored, {} retries, {} throttled responses, {} dropped,"
+            + " concurrency limit {}/{}",
+        stored.sum(),
+        retried.sum(),
+        throttled.sum(),
+        dropped.sum(),
+        concurrencyLimit.getLimit(),
+        concurrencyLimit.getMaxLimit());
+  }
+
+  /** Releases the HTTP client's connections and threads, in-flight requests are completed. */
+  @Override
+  public void close() {
+    httpClient.close();
+    if (responseExecutor != null) {
+      responseExecutor.shutdown();
+    }
+  }
+
+  private String keyName(final PendingKey key) {
+    return keysPerSecret == 1
+        ? SINGLE_KEY_NAME
+        : key.blsKeyPair().getPublicKey().toBytesCompressed().toUnprefixedHexString();
+  }
+
+  private String secretData(final List<PendingKey> keys) {
+    final StringBuilder data = new StringBuilder("{\"data\":{");
+    for (final PendingKey key : keys) {
+      if (data.charAt(data.length() - 1) != '{') {
+        data.append(',');
+      }
+      data.append('"')
+          .append(keyName(key))
+          .append("\":\"")
+          .append(key.blsKeyPair().getSecretKey().toBytes().toUnprefixedHexString())
+          .append('"');
+    }
+    return data.append("} }").toString();
+  }
+
+  private HttpRequest buildHttpRequest(final String secretData, final URI postURI) {
     return HttpRequest.newBuilder(postURI)
         .header("X-Vault-Token", token)
         .header("Content-Type", "application/json")
-        .POST(
-            HttpRequest.BodyPublishers.ofString(
-                String.format("{\"data\":{\"value\":\"%s\"} }", privateKeyHex)))
+        .POST(HttpRequest.BodyPublishers.ofString(secretData))
         .build();
   }
+
+  /**
+   * Parses read back secrets. Jackson, including the exceptions it throws, is only referenced
+   * from here, so runs without --verify don't load it.
+   */
+  private static final class Json {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Counts the keys whose entry in a read back secret holds a secret key deriving the key's
+     * public key.
+     *
+     * @throws UncheckedIOException if the body isn't valid JSON
+     */
+    private static int countMatchingKeys(final String body, final List<VaultKeyLocation> keys) {
+      final JsonNode data;
+      try {
+        data = OBJECT_MAPPER.readTree(body).path("data").path("data");
+      } catch (final JsonProcessingException e) {
+        throw new UncheckedIOException(e);
+      }
+      int matching = 0;
+      for (final VaultKeyLocation key : keys) {
+        final JsonNode secretKey = data.path(key.keyName());
+        if (!secretKey.isTextual()) {
+          LOG.warn("Secret {} has no entry {}", key.secretName(), key.keyName());
+          continue;
+        }
+        final BLSPublicKey storedPublicKey =
+            new BLSKeyPair(BLSSecretKey.fromBytes(Bytes32.fromHexString(secretKey.asText())))
+                .getPublicKey();
+        if (storedPublicKey.equals(key.publicKey())) {
+          matching++;
+        } else {
+          LOG.warn(
+              "Secret {} entry {} holds the key of {} instead of {}",
+              key.secretName(),
+              key.keyName(),
+              storedPublicKey,
+              key.publicKey());
+        }
+      }
+      return matching;
+    }
+  }
 }
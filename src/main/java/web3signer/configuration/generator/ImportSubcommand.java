@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.ArgGroup;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/**
+ * Imports existing EIP-2335 keystores instead of generating keys, running them through the raw,
+ * keystores or hashicorp subcommand given after the import options, e.g. {@code import
+ * --keystores=./validator_keys --password-file=password.txt hashicorp --token-file=token.txt}.
+ *
+ * <p>The keystore directory is walked lazily and keystores are decrypted on the pipeline's
+ * producer threads, so heap use is bounded by the pipeline queue whatever the size of the
+ * directory.
+ */
+@Command(
+    name = "import",
+    description =
+        "Import existing EIP-2335 keystores into raw or hashicorp configurations, or re-encrypt"
+            + " them as keystores. Key generation options of the subcommand are ignored.",
+    subcommands = {RawSubcommand.class, KeystoresSubcommand.class, HashicorpSubcommand.class})
+public class ImportSubcommand {
+  private static final Logger LOG = LoggerFactory.getLogger(ImportSubcommand.class);
+
+  @Option(
+      names = "--keystores",
+      paramLabel = "<DIR>",
+      required = true,
+      description = "Directory searched recursively for keystore json files to import")
+  private Path keystoreDir;
+
+  @ArgGroup(multiplicity = "1")
+  private Passwords passwords;
+
+  static class Passwords {
+    @Option(
+        names = "--password-file",
+        paramLabel = "<FILE>",
+        description = "Path to file that contains the password of all keystores")
+    private Path passwordFile;
+
+    @Option(
+        names = "--passwords-dir",
+        paramLabel = "<DIR>",
+        description =
+            "Directory with a password file per keystore, named like the keystore with a .txt"
+                + " extension")
+    private Path passwordsDir;
+  }
+
+  @Option(
+      names = "--decrypt-threads",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description =
+          "Number of threads decrypting keystores. Concurrent scrypt derivations are further"
+              + " limited by available heap. Default: number of processors")
+  private int decryptThreads = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Decrypts the keystores and hands their keys to the sink.
+   *
+   * @param consumers number of threads running the sink
+   * @param consumerMode kind of threads running the sink
+   * @return number of keys accepted by the sink
+   */
+  public long importKeys(
+      final int consumers, final ExecutorMode consumerMode, final Predicate<BLSKeyPair> sink) {
+    final KeystoreDecryptor decryptor = new KeystoreDecryptor(passwordLookup());
+    final LongAdder keystores = new LongAdder();
+    LOG.info("Importing keystores from {} on {} threads", keystoreDir, decryptThreads);
+    try (final Stream<Path> files =
+        Files.find(
+            keystoreDir,
+            Integer.MAX_VALUE,
+            (path, attributes) ->
+                attributes.isRegularFile() && path.getFileName().toString().endsWith(".json"))) {
+      final Iterator<Path> keystoreFiles = files.iterator();
+      final long imported =
+          new KeyPipeline(decryptThreads, consumers, consumerMode)
+              .run(
+                  keystoreFiles,
+                  keystoreFile -> {
+                    keystores.increment();
+                    return decryptor.decrypt(keystoreFile).orElse(null);
+                  },
+                  sink);
+      LOG.info("Imported {} of {} keystore files from {}", imported, keystores.sum(), keystoreDir);
+      return imported;
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Unable to list keystores in " + keystoreDir, e);
+    }
+  }
+
+  private Function<Path, String> passwordLookup() {
+    if (passwords.passwordFile != null) {
+      final String password = readPassword(passwords.passwordFile);
+      return keystoreFile -> password;
+    }
+    return keystoreFile -> {
+      final String fileName = keystoreFile.getFileName().toString();
+      final String baseName = fileName.substring(0, fileName.length() - ".json".length());
+      return readPassword(passwords.passwordsDir.resolve(baseName + ".txt"));
+    };
+  }
+
+  private static String readPassword(final Path passwordFile) {
+    try {
+      // password files conventionally end with a line break that isn't part of the password
+      return Files.readString(passwordFile).replaceAll("[\\r\\n]+$", "");
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Unable to read password file " + passwordFile, e);
+    }
+  }
+}
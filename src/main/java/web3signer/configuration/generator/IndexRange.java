@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import picocli.CommandLine;
+import picocli.CommandLine.TypeConversionException;
+
+/** Half-open range {@code [start, end)} of key indices. */
+public record IndexRange(int start, int end) {
+  public IndexRange {
+    if (start < 0 || end <= start) {
+      throw new IllegalArgumentException(
+          "Invalid index range " + start + ".." + end + ", expecting 0 <= start < end");
+    }
+  }
+
+  public int size() {
+    return end - start;
+  }
+
+  /** Contiguous slice {@code shard} (0-based) of {@code shards} equally sized slices. */
+  public IndexRange shard(final int shard, final int shards) {
+    final long size = size();
+    final int shardStart = start + (int) (size * shard / shards);
+    final int shardEnd = start + (int) (size * (shard + 1) / shards);
+    return new IndexRange(shardStart, shardEnd);
+  }
+
+  @Override
+  public String toString() {
+    return start + ".." + end;
+  }
+
+  /** Converts {@code a..b} (b exclusive). */
+  public static class Converter implements CommandLine.ITypeConverter<IndexRange> {
+    @Override
+    public IndexRange convert(final String value) throws TypeConversionException {
+      final String[] parts = value.split("\\.\\.", -1);
+      if (parts.length != 2) {
+        throw new TypeConversionException(
+            "Invalid format: expecting <start>..<end> but was '" + value + "'");
+      }
+      try {
+        return new IndexRange(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+      } catch (final NumberFormatException e) {
+        throw new TypeConversionException(
+            "Invalid format: expecting numeric start and end but was '" + value + "'");
+      } catch (final IllegalArgumentException e) {
+        throw new TypeConversionException(e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.tuweni.bytes.Bytes48;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+/**
+ * Append-only journal of keys inserted into vault and of their configuration files, so that an
+ * interrupted run can be resumed. Each line is a record:
+ *
+ * <pre>
+ * H &lt;run parameters&gt;                               parameters of the run, first record
+ * I &lt;index&gt; &lt;public key&gt; &lt;secret name&gt; &lt;key name&gt;   key inserted into vault
+ * C &lt;public key&gt; &lt;file&gt;                             configuration file written
+ * </pre>
+ *
+ * <p>The configuration files recorded by {@code C} records let a resumed run rebuild the {@link
+ * PubkeyManifest} entries of the files written before the interruption.
+ *
+ * <p>{@code I} records are buffered and forced to disk every {@link #SYNC_INTERVAL_MILLIS} and on
+ * close, so a crash loses at most the keys inserted in the last interval. A {@code C} record is
+ * forced before {@link #recordConfigured} returns, as a lost one would make the resumed run write
+ * a second configuration file for its key under another random name; concurrent callers share one
+ * fsync. A torn last record is cut off on resume; its key is either inserted again or its
+ * configuration file written again.
+ *
+ * <p>A journal is only reopened to resume its run, i.e. by a run with the same parameters, and is
+ * deleted on close once its run is complete.
+ */
+public class InsertJournal implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(InsertJournal.class);
+  private static final long SYNC_INTERVAL_MILLIS = 1000;
+
+  private final Path journalFile;
+  private final FileChannel channel;
+  private final BufferedWriter writer;
+  private final ScheduledExecutorService syncExecutor;
+  private final BitSet insertedIndices = new BitSet();
+  private final Map<String, Entry> unconfigured = new ConcurrentHashMap<>();
+  private List<Configured> configured = new ArrayList<>();
+  private final Object syncLock = new Object();
+  private long appended;
+  private long synced;
+  private boolean deleteIfComplete;
+  private String recordedParameters;
+
+  /** A key inserted into vault under its pipeline index. */
+  public record Entry(int index, VaultKeyLocation location) {}
+
+  /** A key inserted into vault together with its configuration file, relative to the output. */
+  public record Configured(VaultKeyLocation location, Path configFile) {}
+
+  private InsertJournal(final Path journalFile) throws IOException {
+    this.journalFile = journalFile;
+    this.channel =
+        FileChannel.open(
+            journalFile,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+    this.writer =
+        new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), 1 << 16);
+    this.syncExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            ExecutorMode.PLATFORM.threadFactory("journal-sync"));
+    syncExecutor.scheduleWithFixedDelay(
+        this::syncQuietly, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Opens the journal for appending.
+   *
+   * @param resume replay an existing journal, otherwise there must be no journal yet
+   * @param parameters parameters of the run, which a resumed journal must have been written with
+   * @throws IllegalArgumentException if the journal can't be opened for this run
+   */
+  public static InsertJournal open(
+      final Path journalFile, final boolean resume, final String parameters) throws IOException {
+    final Path parent = journalFile.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    if (!resume) {
+      if (Files.exists(journalFile)) {
+        throw new IllegalArgumentException(
+            "Journal of an unfinished run exists at "
+                + journalFile
+                + ": the run was interrupted or dropped keys. Pass --resume to insert its missing"
+                + " keys and write its missing configuration files, or delete the journal");
+      }
+      final InsertJournal journal = new InsertJournal(journalFile);
+      journal.append("H " + parameters, -1);
+      return journal;
+    }
+    if (!Files.exists(journalFile)) {
+      throw new IllegalArgumentException("No journal to resume from at " + journalFile);
+    }
+    final InsertJournal journal = new InsertJournal(journalFile);
+    try {
+      journal.replay();
+      // journals of earlier versions don't record the parameters of their run
+      if (journal.recordedParameters != null && !journal.recordedParameters.equals(parameters)) {
+        throw new IllegalArgumentException(
+            "Journal at "
+                + journalFile
+                + " is of a run with "
+                + journal.recordedParameters
+                + ", can't resume it with "
+                + parameters);
+      }
+    } catch (final IOException | RuntimeException e) {
+      journal.close();
+      throw e;
+    }
+    return journal;
+  }
+
+  private void replay() throws IOException {
+    // a torn last record lacks its line break and may have lost some of its fields
+    final long endOfLastRecord = endOfLastRecord();
+    final boolean tornLastRecord = endOfLastRecord < channel.size();
+    long records = 0;
+    try (final BufferedReader reader = Files.newBufferedReader(journalFile)) {
+      String line = reader.readLine();
+      while (line != null) {
+        final String nextLine = reader.readLine();
+        if (nextLine == null && tornLastRecord) {
+          LOG.warn("Ignoring torn last journal record: {}", line);
+        } else if (!line.isEmpty() && replay(line)) {
+          records++;
+        }
+        line = nextLine;
+      }
+    }
+    if (tornLastRecord) {
+      channel.truncate(endOfLastRecord);
+    }
+    LOG.info(
+        "Resuming from {}: {} records, {} keys inserted, {} without configuration file",
+        journalFile,
+        records,
+        insertedIndices.cardinality(),
+        unconfigured.size());
+  }
+
+  private boolean replay(final String record) {
+    final String[] fields = record.split(" ");
+    try {
+      if (fields[0].equals("H") && fields.length > 1) {
+        recordedParameters = record.substring(2);
+        return true;
+      }
+      if (fields[0].equals("I") && fields.length == 5) {
+        final int index = Integer.parseInt(fields[1]);
+        final BLSPublicKey publicKey =
+            BLSPublicKey.fromBytesCompressed(Bytes48.fromHexString(fields[2]));
+        insertedIndices.set(index);
+        unconfigured.put(
+            fields[2], new Entry(index, new VaultKeyLocation(publicKey, fields[3], fields[4])));
+        return true;
+      }
+      if (fields[0].equals("C") && (fields.length == 2 || fields.length == 3)) {
+        final Entry entry = unconfigured.remove(fields[1]);
+        // journals of earlier versions don't record the file
+        if (entry != null && fields.length == 3) {
+          configured.add(new Configured(entry.location(), Path.of(fields[2])));
+        }
+        return true;
+      }
+    } catch (final IllegalArgumentException e) {
+      // logged below
+    }
+    LOG.warn("Ignoring malformed journal record: {}", record);
+    return false;
+  }
+
+  /** Position after the line break of the last complete record. */
+  private long endOfLastRecord() throws IOException {
+    try (final FileChannel reader = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+      final ByteBuffer block = ByteBuffer.allocate(4096);
+      long end = reader.size();
+      while (end > 0) {
+        final long start = Math.max(0, end - block.capacity());
+        block.clear().limit((int) (end - start));
+        while (block.hasRemaining()) {
+          reader.read(block, start + block.position());
+        }
+        for (int i = block.limit() - 1; i >= 0; i--) {
+          if (block.get(i) == '\n') {
+            return start + i + 1;
+          }
+        }
+        end = start;
+      }
+      return 0;
+    }
+  }
+
+  public synchronized boolean isInserted(final int index) {
+    return insertedIndices.get(index);
+  }
+
+  /**
+   * Keys whose configuration file was written by the resumed run, handed out once as they are only
+   * needed to rebuild the manifest.
+   */
+  public synchronized List<Configured> takeConfigured() {
+    final List<Configured> taken = configured;
+    configured = new ArrayList<>();
+    return taken;
+  }
+
+  /** Keys inserted into vault whose configuration file hasn't been written yet. */
+  public Collection<Entry> getUnconfigured() {
+    return List.copyOf(unconfigured.values());
+  }
+
+  public void recordInserted(final int index, final VaultKeyLocation location) {
+    final String publicKey = location.publicKey().toBytesCompressed().toUnprefixedHexString();
+    unconfigured.put(publicKey, new Entry(index, location));
+    append(
+        "I "
+            + index
+            + " "
+            + publicKey
+            + " "
+            + location.secretName()
+            + " "
+            + location.keyName(),
+        index);
+  }
+
+  /** Records the configuration file of a key, returning once the record is on disk. */
+  public void recordConfigured(final BLSPublicKey publicKey, final Path configFile) {
+    final String publicKeyHex = publicKey.toBytesCompressed().toUnprefixedHexString();
+    unconfigured.remove(publicKeyHex);
+    final long sequence = append("C " + publicKeyHex + " " + configFile, -1);
+    try {
+      syncThrough(sequence);
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Error syncing journal " + journalFile, e);
+    }
+  }
+
+  /** Returns the sequence number of the appended record. */
+  private synchronized long append(final String record, final int insertedIndex) {
+    if (insertedIndex >= 0) {
+      insertedIndices.set(insertedIndex);
+    }
+    try {
+      writer.write(record);
+      writer.newLine();
+      return ++appended;
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Error appending to journal " + journalFile, e);
+    }
+  }
+
+  /** Forces buffered records to disk. */
+  public void sync() throws IOException {
+    final long sequence;
+    synchronized (this) {
+      sequence = appended;
+    }
+    syncThrough(sequence);
+  }
+
+  /**
+   * Forces records up to {@code sequence} to disk. Appends continue while the channel is forced,
+   * and callers waiting meanwhile find their records forced by it or by the next force.
+   */
+  private void syncThrough(final long sequence) throws IOException {
+    synchronized (syncLock) {
+      if (synced >= sequence) {
+        return;
+      }
+      final long flushed;
+      synchronized (this) {
+        writer.flush();
+        flushed = appended;
+      }
+      channel.force(false);
+      synced = flushed;
+    }
+  }
+
+  private void syncQuietly() {
+    try {
+      sync();
+    } catch (final IOException e) {
+      LOG.error("Error syncing journal {}: {}", journalFile, e.getMessage());
+    }
+  }
+
+  /**
+   * Deletes the journal on close if every key recorded by then has its configuration file, i.e.
+   * once nothing is left to resume.
+   */
+  public void deleteOnCloseIfComplete() {
+    deleteIfComplete = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    syncExecutor.shutdownNow();
+    sync();
+    synchronized (this) {
+      writer.close();
+    }
+    if (deleteIfComplete && unconfigured.isEmpty()) {
+      Files.delete(journalFile);
+      LOG.debug("Run complete, deleted journal {}", journalFile);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+/** Options controlling the key derivation function used to encrypt keystores. */
+public class KdfOptions {
+  @Spec(Spec.Target.MIXEE)
+  CommandSpec spec;
+
+  @Option(
+      names = "--kdf-function",
+      converter = KeystoreKdf.Function.Converter.class,
+      paramLabel = "<FUNCTION>",
+      description = "KDF (Key Derivation Function), 'pbkdf2' or 'scrypt'. Default: ${DEFAULT-VALUE}")
+  KeystoreKdf.Function kdfFunction = KeystoreKdf.Function.PBKDF2;
+
+  @Option(
+      names = "--kdf-counter",
+      description = "Iterative count for KDF (Key Derivation Function). Default: ${DEFAULT-VALUE}",
+      paramLabel = "<NUMBER>",
+      defaultValue = "16")
+  int kdfCounter = 16;
+
+  @Option(
+      names = "--scrypt-n",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description = "scrypt CPU/memory cost parameter, a power of 2. Default: ${DEFAULT-VALUE}")
+  int scryptN = 262144;
+
+  @Option(
+      names = "--scrypt-r",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description = "scrypt block size parameter. Default: ${DEFAULT-VALUE}")
+  int scryptR = 8;
+
+  @Option(
+      names = "--scrypt-p",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description = "scrypt parallelization parameter. Default: ${DEFAULT-VALUE}")
+  int scryptP = 1;
+
+  @Option(
+      names = "--kdf-threads",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description =
+          "Number of threads encrypting keystores. Concurrent scrypt derivations are further"
+              + " limited by available heap. Default: number of processors")
+  int kdfThreads = Runtime.getRuntime().availableProcessors();
+
+  public int getKdfThreads() {
+    return kdfThreads;
+  }
+
+  public KeystoreKdf createKeystoreKdf() {
+    if (kdfFunction == KeystoreKdf.Function.PBKDF2) {
+      if (kdfCounter <= 0) {
+        throw new ParameterException(spec.commandLine(), "--kdf-counter must be positive");
+      }
+      return KeystoreKdf.pbkdf2(kdfCounter, kdfThreads);
+    }
+    if (scryptN < 2 || Integer.bitCount(scryptN) != 1) {
+      throw new ParameterException(
+          spec.commandLine(), "--scrypt-n must be a power of 2 greater than 1");
+    }
+    try {
+      return KeystoreKdf.scrypt(scryptN, scryptR, scryptP, kdfThreads);
+    } catch (final IllegalArgumentException e) {
+      throw new ParameterException(spec.commandLine(), e.getMessage());
+    }
+  }
+}
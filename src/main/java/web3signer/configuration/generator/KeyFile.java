@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.Bytes48;
+import tech.pegasys.teku.bls.BLSKeyPair;
+import tech.pegasys.teku.bls.BLSPublicKey;
+import tech.pegasys.teku.bls.BLSSecretKey;
+
+/**
+ * Binary file of BLS keys written once by the generate-keys subcommand and read by the other
+ * subcommands with {@code --key-source}, so an expensive key set is reused across outputs and runs.
+ *
+ * <p>Layout, big endian: a 16 byte header ({@code W3SK}, version, index of the first key, key
+ * count) followed by fixed size 80 byte records in index order, each a 32 byte secret key and its
+ * 48 byte compressed public key. Records are read from the memory mapped file by offset, so any
+ * index range is read without scanning the keys before it and the public key is taken as stored
+ * rather than derived from the secret key. Key files are limited to the 2 GiB a buffer can map,
+ * about 26 million keys.
+ */
+public class KeyFile implements KeySource {
+  private static final int MAGIC = 0x5733534b; // W3SK
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int SECRET_KEY_SIZE = 32;
+  private static final int PUBLIC_KEY_SIZE = 48;
+  private static final int RECORD_SIZE = SECRET_KEY_SIZE + PUBLIC_KEY_SIZE;
+  private static final Metrics.Stage METRICS = Metrics.stage("key-read");
+
+  private final Path keyFile;
+  private final MappedByteBuffer buffer;
+  private final IndexRange range;
+
+  private KeyFile(final Path keyFile, final MappedByteBuffer buffer, final IndexRange range) {
+    this.keyFile = keyFile;
+    this.buffer = buffer;
+    this.range = range;
+  }
+
+  public static KeyFile open(final Path keyFile) throws IOException {
+    try (final FileChannel channel = FileChannel.open(keyFile, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Invalid key file size " + channel.size() + " of " + keyFile);
+      }
+      final MappedByteBuffer buffer =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        throw new IOException("Not a version " + VERSION + " key file: " + keyFile);
+      }
+      final int firstIndex = buffer.getInt(8);
+      final int count = buffer.getInt(12);
+      if (firstIndex < 0
+          || count <= 0
+          || (long) firstIndex + count > Integer.MAX_VALUE
+          || channel.size() != HEADER_SIZE + (long) count * RECORD_SIZE) {
+        throw new IOException("Corrupt key file " + keyFile);
+      }
+      return new KeyFile(keyFile, buffer, new IndexRange(firstIndex, firstIndex + count));
+    }
+  }
+
+  /** Creates a key file for the keys of the range, its records are filled by the writer. */
+  public static Writer create(final Path keyFile, final IndexRange range) throws IOException {
+    final long size = HEADER_SIZE + (long) range.size() * RECORD_SIZE;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "Key files are limited to " + (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE + " keys");
+    }
+    try (final FileChannel channel =
+        FileChannel.open(
+            keyFile,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, range.start()).putInt(12, range.size());
+      return new Writer(keyFile, buffer, range);
+    }
+  }
+
+  /** Indices of the keys in the file. */
+  public IndexRange getRange() {
+    return range;
+  }
+
+  /** Reads the key at the index, wrapping the mapped record bytes without copying them. */
+  @Override
+  public BLSKeyPair keyPair(final int index) {
+    final long startNanos = System.nanoTime();
+    final Bytes record = Bytes.wrapByteBuffer(buffer, recordOffset(range, index), RECORD_SIZE);
+    final BLSKeyPair blsKeyPair =
+        new BLSKeyPair(
+            BLSPublicKey.fromBytesCompressed(
+                Bytes48.wrap(record.slice(SECRET_KEY_SIZE, PUBLIC_KEY_SIZE))),
+            BLSSecretKey.fromBytes(Bytes32.wrap(record.slice(0, SECRET_KEY_SIZE))));
+    METRICS.recordSince(startNanos);
+    return blsKeyPair;
+  }
+
+  @Override
+  public boolean isDeterministic() {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return keyFile + " (keys " + range + ")";
+  }
+
+  private static int recordOffset(final IndexRange range, final int index) {
+    if (index < range.start() || index >= range.end()) {
+      throw new IndexOutOfBoundsException("Key " + index + " is outside of " + range);
+    }
+    return HEADER_SIZE + (index - range.start()) * RECORD_SIZE;
+  }
+
+  /**
+   * Fills the records of a new key file through the writable mapping. Records are written at
+   * their index's offset, so keys can be written concurrently and in any order.
+   */
+  public static class Writer implements AutoCloseable {
+    private final Path keyFile;
+    private final MappedByteBuffer buffer;
+    private final IndexRange range;
+
+    private Writer(final Path keyFile, final MappedByteBuffer buffer, final IndexRange range) {
+      this.keyFile = keyFile;
+      this.buffer = buffer;
+      this.range = range;
+    }
+
+    public boolean write(final int index, final BLSKeyPair blsKeyPair) {
+      final int offset = recordOffset(range, index);
+      buffer.put(offset, blsKeyPair.getSecretKey().toBytes().toArrayUnsafe());
+      buffer.put(
+          offset + SECRET_KEY_SIZE, blsKeyPair.getPublicKey().toBytesCompressed().toArrayUnsafe());
+      return true;
+    }
+
+    /** Flushes the mapped records to the file. */
+    @Override
+    public void close() {
+      buffer.force();
+    }
+
+    @Override
+    public String toString() {
+      return keyFile.toString();
+    }
+  }
+}
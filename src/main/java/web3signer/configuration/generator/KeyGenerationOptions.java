@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+/**
+ * Options controlling how BLS keys are generated or read from a key file, shared by the generating
+ * subcommands.
+ */
+public class KeyGenerationOptions {
+  private static final String HEX_SEED_PATTERN = "(0x)?([0-9a-fA-F]{2})+";
+
+  @Spec(Spec.Target.MIXEE)
+  CommandSpec spec;
+
+  @Option(
+      names = "--rng",
+      converter = RngMode.Converter.class,
+      paramLabel = "<MODE>",
+      description =
+          "Random number generation: 'shared' uses one SecureRandom for all threads,"
+              + " 'per-thread' uses a DRBG per worker thread seeded from a master seed."
+              + " Default: ${DEFAULT-VALUE}")
+  RngMode rngMode = RngMode.SHARED;
+
+  @Option(
+      names = "--seed-file",
+      paramLabel = "<FILE>",
+      description =
+          "Path to file containing a hex encoded seed (at least 32 bytes) or a BIP-39 mnemonic."
+              + " Keys are derived deterministically at EIP-2334 path m/12381/3600/i/0/0"
+              + " instead of being random.")
+  Path seedFile = null;
+
+  @Option(
+      names = "--key-source",
+      paramLabel = "<FILE>",
+      description =
+          "Key file written by generate-keys to read the keys from instead of generating them."
+              + " Key indices start at the first key of the file.")
+  Path keySourceFile = null;
+
+  @Option(
+      names = "--shard",
+      converter = Shard.Converter.class,
+      paramLabel = "<i/N>",
+      description =
+          "Only derive shard i (0-based) of N equally sized, contiguous slices of the --count"
+              + " key indices. Requires --seed-file or --key-source.")
+  Shard shard = null;
+
+  @Option(
+      names = "--index-range",
+      converter = IndexRange.Converter.class,
+      paramLabel = "<a..b>",
+      description =
+          "Only derive keys with index a (inclusive) to b (exclusive), --count is ignored."
+              + " Requires --seed-file or --key-source.")
+  IndexRange indexRange = null;
+
+  private KeyFile keyFile;
+
+  public KeySource createKeySource() {
+    if (keySourceFile != null) {
+      if (seedFile != null) {
+        throw new ParameterException(
+            spec.commandLine(), "--seed-file and --key-source are mutually exclusive");
+      }
+      return keyFile();
+    }
+    BLSKeyGenerator.useRngMode(rngMode);
+    if (seedFile == null) {
+      return new BLSKeyGenerator();
+    }
+    try {
+      return new BLSKeyGenerator(readSeed());
+    } catch (final IllegalArgumentException e) {
+      throw new ParameterException(spec.commandLine(), "Invalid seed file: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Key indices this run should generate out of {@code count} keys. With --key-source the indices
+   * start at the first key of the file and must be within it.
+   */
+  public IndexRange indexRange(final int count) {
+    if ((shard != null || indexRange != null) && seedFile == null && keySourceFile == null) {
+      throw new ParameterException(
+          spec.commandLine(), "--shard and --index-range require --seed-file or --key-source");
+    }
+    if (shard != null && indexRange != null) {
+      throw new ParameterException(
+          spec.commandLine(), "--shard and --index-range are mutually exclusive");
+    }
+    final IndexRange range;
+    if (indexRange != null) {
+      range = indexRange;
+    } else {
+      final int firstIndex = keySourceFile == null ? 0 : keyFile().getRange().start();
+      final IndexRange allKeys = new IndexRange(firstIndex, firstIndex + count);
+      if (shard != null && shard.total() > count) {
+        throw new ParameterException(
+            spec.commandLine(), "Number of shards must not exceed --count " + count);
+      }
+      range = shard == null ? allKeys : allKeys.shard(shard.index(), shard.total());
+    }
+    if (keySourceFile != null) {
+      final IndexRange available = keyFile().getRange();
+      if (range.start() < available.start() || range.end() > available.end()) {
+        throw new ParameterException(
+            spec.commandLine(),
+            "--key-source " + keySourceFile + " holds keys " + available + ", not " + range);
+      }
+    }
+    return range;
+  }
+
+  private KeyFile keyFile() {
+    if (keyFile == null) {
+      try {
+        keyFile = KeyFile.open(keySourceFile);
+      } catch (final IOException e) {
+        throw new ParameterException(
+            spec.commandLine(), "Unable to read --key-source: " + e.getMessage());
+      }
+    }
+    return keyFile;
+  }
+
+  private byte[] readSeed() {
+    final String content;
+    try {
+      content = Files.readString(seedFile).trim();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (content.matches(HEX_SEED_PATTERN)) {
+      return HexFormat.of().parseHex(content.replaceFirst("^0x", ""));
+    }
+    return Eip2333KeyDerivation.mnemonicToSeed(content, "");
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Producer/consumer pipeline that streams items (typically BLS key pairs) from a source to a sink
+ * through a bounded queue. Producers block once the queue is full, so the number of items held in
+ * memory is bounded by the queue capacity rather than by the number of items processed.
+ *
+ * <p>Producers always run on platform threads. Consumers doing I/O bound work can run on virtual
+ * threads, while consumers doing CPU bound work such as keystore encryption should stay on
+ * platform threads.
+ */
+public class KeyPipeline {
+  private static final Logger LOG = LoggerFactory.getLogger(KeyPipeline.class);
+  private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+  private static final Object END_OF_STREAM = new Object();
+
+  private final int producers;
+  private final int consumers;
+  private final int queueCapacity;
+  private final ExecutorMode consumerMode;
+
+  public KeyPipeline() {
+    this(
+        Runtime.getRuntime().availableProcessors(),
+        Runtime.getRuntime().availableProcessors(),
+        DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /** CPU sized pipeline whose consumers run on the given kind of threads. */
+  public KeyPipeline(final ExecutorMode consumerMode) {
+    this(
+        Runtime.getRuntime().availableProcessors(),
+        Runtime.getRuntime().availableProcessors(),
+        DEFAULT_QUEUE_CAPACITY,
+        consumerMode);
+  }
+
+  public KeyPipeline(final int consumers) {
+    this(Runtime.getRuntime().availableProcessors(), consumers, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  public KeyPipeline(final int producers, final int consumers, final ExecutorMode consumerMode) {
+    this(producers, consumers, DEFAULT_QUEUE_CAPACITY, consumerMode);
+  }
+
+  public KeyPipeline(final int producers, final int consumers, final int queueCapacity) {
+    this(producers, consumers, queueCapacity, ExecutorMode.PLATFORM);
+  }
+
+  public KeyPipeline(
+      final int producers,
+      final int consumers,
+      final int queueCapacity,
+      final ExecutorMode consumerMode) {
+    if (producers <= 0 || consumers <= 0 || queueCapacity <= 0) {
+      throw new IllegalArgumentException("Pipeline threads and queue capacity must be positive");
+    }
+    this.producers = producers;
+    this.consumers = consumers;
+    this.queueCapacity = queueCapacity;
+    this.consumerMode = consumerMode;
+  }
+
+  /**
+   * Produces an item for each index in {@code [startIndex, endIndex)} and hands it to the sink.
+   *
+   * @param startIndex first index (inclusive)
+   * @param endIndex last index (exclusive)
+   * @param source creates the item for an index, invoked concurrently from producer threads
+   * @param sink consumes an item and returns false if it could not be processed, invoked
+   *     concurrently from consumer threads
+   * @return number of items accepted by the sink
+   */
+  public <T> long run(
+      final int startIndex,
+      final int endIndex,
+      final IntFunction<T> source,
+      final Predicate<T> sink) {
+    final AtomicInteger nextIndex = new AtomicInteger(startIndex);
+    return run(
+        () -> {
+          final int index = nextIndex.getAndIncrement();
+          return index < endIndex ? source.apply(index) : END_OF_STREAM;
+        },
+        sink);
+  }
+
+  /**
+   * Produces an item for each input, e.g. the files of a directory listing, and hands it to the
+   * sink. Producers take one input at a time from the iterator, so it is never called concurrently
+   * and can read its inputs lazily.
+   *
+   * @param source creates the item for an input, or returns null to skip the input, invoked
+   *     concurrently from producer threads
+   * @param sink consumes an item and returns false if it could not be processed, invoked
+   *     concurrently from consumer threads
+   * @return number of items accepted by the sink
+   */
+  public <S, T> long run(
+      final Iterator<S> inputs, final Function<S, T> source, final Predicate<T> sink) {
+    return run(
+        () -> {
+          final S input;
+          synchronized (inputs) {
+            if (!inputs.hasNext()) {
+              return END_OF_STREAM;
+            }
+            input = inputs.next();
+          }
+          return source.apply(input);
+        },
+        sink);
+  }
+
+  /** Next item for a producer to enqueue, null to skip, {@link #END_OF_STREAM} once exhausted. */
+  @FunctionalInterface
+  private interface ItemSource {
+    Object next();
+  }
+
+  private <T> long run(final ItemSource source, final Predicate<T> sink) {
+    final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final LongAdder accepted = new LongAdder();
+
+    final ThreadFactory platformThreads = ExecutorMode.PLATFORM.threadFactory("key-pipeline");
+    final ExecutorService producerExecutor =
+        Executors.newFixedThreadPool(producers, platformThreads);
+    final ExecutorService consumerExecutor =
+        consumerMode == ExecutorMode.PLATFORM
+            ? Executors.newFixedThreadPool(consumers, platformThreads)
+            : Executors.newThreadPerTaskExecutor(
+                consumerMode.threadFactory("key-pipeline-consumer"));
+    try {
+      final List<Future<?>> producerFutures = new ArrayList<>(producers);
+      for (int i = 0; i < producers; i++) {
+        producerFutures.add(
+            producerExecutor.submit(
+                () -> {
+                  Object item;
+                  while (!failed.get() && (item = source.next()) != END_OF_STREAM) {
+                    if (item != null) {
+                      enqueue(queue, item, failed);
+                    }
+                  }
+                  return null;
+                }));
+      }
+
+      final List<Future<?>> consumerFutures = new ArrayList<>(consumers);
+      for (int i = 0; i < consumers; i++) {
+        consumerFutures.add(
+            consumerExecutor.submit(
+                () -> {
+                  try {
+                    Object item;
+                    while ((item = queue.take()) != END_OF_STREAM) {
+                      if (consume(sink, item)) {
+                        accepted.increment();
+                      }
+                    }
+                    return null;
+                  } catch (final Error e) {
+                    failed.set(true);
+                    throw e;
+                  }
+                }));
+      }
+
+      final RuntimeException producerFailure = awaitAll(producerFutures, failed);
+      if (producerFailure != null) {
+        // finally block interrupts the consumers
+        throw producerFailure;
+      }
+      if (failed.get()) {
+        throw new IllegalStateException("Key pipeline consumer terminated unexpectedly");
+      }
+      for (int i = 0; i < consumers; i++) {
+        enqueue(queue, END_OF_STREAM, failed);
+      }
+      final RuntimeException consumerFailure = awaitAll(consumerFutures, failed);
+      if (consumerFailure != null) {
+        throw consumerFailure;
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while processing keys", e);
+    } finally {
+      producerExecutor.shutdownNow();
+      consumerExecutor.shutdownNow();
+    }
+    return accepted.sum();
+  }
+
+  private static void enqueue(
+      final BlockingQueue<Object> queue, final Object item, final AtomicBoolean failed)
+      throws InterruptedException {
+    // time-boxed offer so that producers don't block forever on a queue nobody is draining
+    while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+      if (failed.get()) {
+        return;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> boolean consume(final Predicate<T> sink, final Object item) {
+    try {
+      return sink.test((T) item);
+    } catch (final RuntimeException e) {
+      LOG.error("Error processing key: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  private static RuntimeException awaitAll(
+      final List<Future<?>> futures, final AtomicBoolean failed) throws InterruptedException {
+    RuntimeException failure = null;
+    for (final Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (final ExecutionException e) {
+        failed.set(true);
+        if (failure == null) {
+          failure =
+              e.getCause() instanceof RuntimeException runtimeException
+                  ? runtimeException
+                  : new IllegalStateException(e.getCause());
+        }
+      }
+    }
+    return failure;
+  }
+}
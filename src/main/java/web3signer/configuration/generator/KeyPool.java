@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/**
+ * Random keys generated ahead of requests for the serve subcommand. Background threads refill the
+ * pool up to the high watermark whenever it has drained to the low watermark, so requests take
+ * keys without generating them. Once the pool is empty keys are generated on the caller's thread
+ * instead of waiting for a refill.
+ */
+public class KeyPool implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(KeyPool.class);
+
+  private final BLSKeyGenerator keyGenerator = new BLSKeyGenerator();
+  private final int lowWatermark;
+  private final int highWatermark;
+  private final BlockingQueue<BLSKeyPair> keys;
+  private final ExecutorService refillExecutor;
+  private final Object refillLock = new Object();
+  private final LongAdder pooled = new LongAdder();
+  private final LongAdder generatedOnDemand = new LongAdder();
+  private boolean refilling = true;
+  private boolean closed = false;
+
+  /**
+   * @param lowWatermark number of pooled keys at which refilling starts
+   * @param highWatermark number of pooled keys at which refilling stops, the pool's capacity
+   * @param refillThreads number of platform threads generating keys for the pool
+   */
+  public KeyPool(final int lowWatermark, final int highWatermark, final int refillThreads) {
+    if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+      throw new IllegalArgumentException(
+          "Watermarks must satisfy 0 <= low < high, got " + lowWatermark + ", " + highWatermark);
+    }
+    this.lowWatermark = lowWatermark;
+    this.highWatermark = highWatermark;
+    this.keys = new ArrayBlockingQueue<>(highWatermark);
+    this.refillExecutor =
+        Executors.newFixedThreadPool(
+            refillThreads, ExecutorMode.PLATFORM.threadFactory("key-pool"));
+    for (int i = 0; i < refillThreads; i++) {
+      refillExecutor.execute(this::refill);
+    }
+  }
+
+  /** Takes a pooled key, or generates one if the pool is empty. */
+  public BLSKeyPair next() {
+    BLSKeyPair blsKeyPair = keys.poll();
+    if (blsKeyPair == null) {
+      generatedOnDemand.increment();
+      blsKeyPair = keyGenerator.generate(0);
+    } else {
+      pooled.increment();
+    }
+    if (keys.size() <= lowWatermark) {
+      startRefill();
+    }
+    return blsKeyPair;
+  }
+
+  public int size() {
+    return keys.size();
+  }
+
+  public int getLowWatermark() {
+    return lowWatermark;
+  }
+
+  public int getHighWatermark() {
+    return highWatermark;
+  }
+
+  /** Number of keys handed out from the pool. */
+  public long getPooledCount() {
+    return pooled.sum();
+  }
+
+  /** Number of keys generated by callers because the pool was empty. */
+  public long getGeneratedOnDemandCount() {
+    return generatedOnDemand.sum();
+  }
+
+  private void startRefill() {
+    synchronized (refillLock) {
+      if (!refilling) {
+        refilling = true;
+        refillLock.notifyAll();
+      }
+    }
+  }
+
+  private void refill() {
+    try {
+      while (awaitRefilling()) {
+        // offer rather than put, other refill threads may have filled the pool meanwhile
+        if (!keys.offer(keyGenerator.generate(0)) || keys.size() >= highWatermark) {
+          synchronized (refillLock) {
+            if (refilling) {
+              refilling = false;
+              LOG.debug("Key pool refilled to {} keys", keys.size());
+            }
+          }
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Blocks until the pool needs refilling, returns false once closed. */
+  private boolean awaitRefilling() throws InterruptedException {
+    synchronized (refillLock) {
+      while (!refilling && !closed) {
+        refillLock.wait();
+      }
+      return !closed;
+    }
+  }
+
+  @Override
+  public void close() {
+    synchronized (refillLock) {
+      closed = true;
+      refillLock.notifyAll();
+    }
+    refillExecutor.shutdownNow();
+  }
+}
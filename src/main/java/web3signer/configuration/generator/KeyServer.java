@@ -0,0 +1,308 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.ParameterException;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/**
+ * Local HTTP API of the serve subcommand, generating the same output as the raw, keystores and
+ * hashicorp subcommands with keys taken from a {@link KeyPool}. A JSON request such as {@code
+ * {"count":10,"output":"keys"}} is POSTed to {@code /v1/raw}, {@code /v1/keystores} or {@code
+ * /v1/hashicorp} (which also needs {@code url} and {@code token}, and takes an optional {@code
+ * tlsKnownHosts} file for https vaults) and answered once all files are written. {@code GET
+ * /v1/pool} reports the pool's size and watermarks.
+ *
+ * <p>The API has no authentication, so outputs are confined to the output root: a request's
+ * {@code output} is resolved against it and rejected if it points outside of it.
+ */
+public class KeyServer implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(KeyServer.class);
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  /** Body of a generation request, options not given default to the serve options. */
+  record GenerateRequest(
+      Integer count,
+      String output,
+      URI url,
+      String token,
+      Integer keysPerSecret,
+      Boolean generateConfig,
+      String tlsKnownHosts) {}
+
+  private final KeyPool keyPool;
+  private final OutputOptions outputOptions;
+  private final KdfOptions kdfOptions;
+  private final Path outputRoot;
+  private final KeystoreEncryptor keystoreEncryptor;
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder failedRequests = new LongAdder();
+
+  /**
+   * @param outputRoot directory holding the outputs of all requests, created if missing
+   */
+  public KeyServer(
+      final InetSocketAddress address,
+      final KeyPool keyPool,
+      final OutputOptions outputOptions,
+      final KdfOptions kdfOptions,
+      final Path outputRoot)
+      throws IOException {
+    this.keyPool = keyPool;
+    this.outputOptions = outputOptions;
+    this.kdfOptions = kdfOptions;
+    this.outputRoot = Files.createDirectories(outputRoot).toRealPath();
+    this.keystoreEncryptor =
+        KeystoreEncryptor.create(
+            kdfOptions.createKeystoreKdf(), Web3SignerYamlConfiguration.KEYSTORE_PASSWORD);
+    this.server = HttpServer.create(address, 0);
+    server.createContext("/v1/raw", exchange -> handleGenerate(exchange, this::generateRaw));
+    server.createContext(
+        "/v1/keystores", exchange -> handleGenerate(exchange, this::generateKeystores));
+    server.createContext(
+        "/v1/hashicorp", exchange -> handleGenerate(exchange, this::generateHashicorp));
+    server.createContext("/v1/pool", this::handlePool);
+    server.setExecutor(executor);
+  }
+
+  public KeyServer start() {
+    server.start();
+    LOG.info("Serving key generation requests on {}", getEndpoint());
+    return this;
+  }
+
+  public URI getEndpoint() {
+    final InetSocketAddress address = server.getAddress();
+    return URI.create("http://" + address.getHostString() + ":" + address.getPort() + "/v1");
+  }
+
+  @FunctionalInterface
+  private interface Generation {
+    /**
+     * @return number of keys written
+     */
+    long generate(GenerateRequest request, Path outputDir, int count) throws Exception;
+  }
+
+  private void handleGenerate(final HttpExchange exchange, final Generation generation)
+      throws IOException {
+    try (exchange) {
+      requests.increment();
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        respond(exchange, 405, Map.of("error", "expecting POST"));
+        return;
+      }
+      final byte[] body = exchange.getRequestBody().readAllBytes();
+      final GenerateRequest request;
+      try {
+        request = OBJECT_MAPPER.readValue(body, GenerateRequest.class);
+      } catch (final JsonProcessingException e) {
+        failedRequests.increment();
+        respond(exchange, 400, Map.of("error", "invalid request: " + e.getOriginalMessage()));
+        return;
+      }
+      if (request.count() == null || request.count() <= 0 || request.output() == null) {
+        failedRequests.increment();
+        respond(exchange, 400, Map.of("error", "expecting a positive count and an output"));
+        return;
+      }
+
+      final Path outputDir = outputRoot.resolve(request.output()).normalize();
+      if (!outputDir.startsWith(outputRoot)) {
+        failedRequests.increment();
+        respond(exchange, 400, Map.of("error", "output must be inside " + outputRoot));
+        return;
+      }
+
+      final long startNanos = System.nanoTime();
+      final long created;
+      try {
+        created = generation.generate(request, outputDir, request.count());
+      } catch (final ParameterException | IllegalArgumentException e) {
+        failedRequests.increment();
+        respond(exchange, 400, Map.of("error", e.getMessage()));
+        return;
+      } catch (final Exception e) {
+        failedRequests.increment();
+        LOG.error("Request for {} keys in {} failed", request.count(), outputDir, e);
+        respond(exchange, 500, Map.of("error", String.valueOf(e.getMessage())));
+        return;
+      }
+      final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      LOG.info("Created {} keys in {} in {} ms", created, outputDir, elapsedMillis);
+      final Map<String, Object> response = new LinkedHashMap<>();
+      response.put("created", created);
+      response.put("output", outputDir.toString());
+      response.put("elapsedMillis", elapsedMillis);
+      respond(exchange, 200, response);
+    }
+  }
+
+  private void handlePool(final HttpExchange exchange) throws IOException {
+    try (exchange) {
+      requests.increment();
+      final Map<String, Object> response = new LinkedHashMap<>();
+      response.put("size", keyPool.size());
+      response.put("lowWatermark", keyPool.getLowWatermark());
+      response.put("highWatermark", keyPool.getHighWatermark());
+      response.put("pooled", keyPool.getPooledCount());
+      response.put("generatedOnDemand", keyPool.getGeneratedOnDemandCount());
+      respond(exchange, 200, response);
+    }
+  }
+
+  private long generateRaw(final GenerateRequest request, final Path outputDir, final int count) {
+    final ExistingKeyIndex existingKeys = outputOptions.indexExistingKeys(outputDir);
+    final Web3SignerYamlConfiguration configuration = createConfiguration(outputDir);
+    try (configuration) {
+      new KeyPipeline(outputOptions.getExecutorMode())
+          .run(
+              0,
+              keysToGenerate(existingKeys, count),
+              i -> keyPool.next(),
+              configuration::createRawYamlConfigurationFile);
+    }
+    return configuration.getWrittenCount();
+  }
+
+  private long generateKeystores(
+      final GenerateRequest request, final Path outputDir, final int count) {
+    final boolean generateConfig = request.generateConfig() == null || request.generateConfig();
+    final ExistingKeyIndex existingKeys = outputOptions.indexExistingKeys(outputDir);
+    final Web3SignerYamlConfiguration configuration = createConfiguration(outputDir);
+    try (configuration) {
+      configuration.createKeystorePasswordFile();
+      new KeyPipeline(kdfOptions.getKdfThreads())
+          .run(
+              0,
+              keysToGenerate(existingKeys, count),
+              i -> keyPool.next(),
+              blsKeyPair ->
+                  configuration.createKeystoreConfigurationFile(
+                      blsKeyPair, generateConfig, outputDir, keystoreEncryptor));
+    }
+    return configuration.getWrittenCount();
+  }
+
+  private long generateHashicorp(
+      final GenerateRequest request, final Path outputDir, final int count) {
+    if (request.url() == null || request.token() == null) {
+      throw new IllegalArgumentException("hashicorp requests need a url and a token");
+    }
+    final Path tlsKnownHosts =
+        request.tlsKnownHosts() == null ? null : Path.of(request.tlsKnownHosts());
+    final ExistingKeyIndex existingKeys = outputOptions.indexExistingKeys(outputDir);
+    final Web3SignerYamlConfiguration configuration = createConfiguration(outputDir);
+    try (configuration;
+        final HashicorpVaultClient client =
+            new HashicorpVaultClient(
+                request.url(),
+                request.token(),
+                HashicorpVaultClient.DEFAULT_CONCURRENCY,
+                0,
+                HashicorpVaultClient.DEFAULT_MAX_RETRIES,
+                request.keysPerSecret() == null ? 1 : request.keysPerSecret(),
+                outputOptions.getExecutorMode())) {
+      if (!client.isInitialized()) {
+        throw new IllegalStateException("Hashicorp vault at " + request.url() + " isn't available");
+      }
+      final Predicate<BLSKeyPair> insert =
+          blsKeyPair -> {
+            client.insertSecretAsync(
+                blsKeyPair,
+                location ->
+                    configuration.createHashicorpYamlConfigurationFile(
+                        location,
+                        request.url(),
+                        request.token(),
+                        tlsKnownHosts,
+                        null,
+                        configFile -> {}));
+            return true;
+          };
+      new KeyPipeline(outputOptions.getExecutorMode())
+          .run(0, keysToGenerate(existingKeys, count), i -> keyPool.next(), insert);
+      client.awaitInFlight();
+      client.logSummary();
+    }
+    return configuration.getWrittenCount();
+  }
+
+  private Web3SignerYamlConfiguration createConfiguration(final Path outputDir) {
+    final Web3SignerYamlConfiguration configuration =
+        new Web3SignerYamlConfiguration(
+            outputDir,
+            outputOptions.createOutputWriter(outputDir),
+            outputOptions.getBundleSize(),
+            outputOptions.getFileNaming());
+    if (outputOptions.isTopUp()) {
+      configuration.keepExistingManifest();
+    }
+    return configuration;
+  }
+
+  /** Pool keys are random, so topping up only needs as many keys as are missing. */
+  private static int keysToGenerate(final ExistingKeyIndex existingKeys, final int count) {
+    return existingKeys
+        .rangeToGenerate(new IndexRange(0, count), false)
+        .map(IndexRange::size)
+        .orElse(0);
+  }
+
+  private static void respond(
+      final HttpExchange exchange, final int status, final Map<String, ?> body)
+      throws IOException {
+    final byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(body);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (final OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  public void logSummary() {
+    LOG.info(
+        "Key server: {} requests, {} failed, {} pooled keys served, {} generated on demand",
+        requests.sum(),
+        failedRequests.sum(),
+        keyPool.getPooledCount(),
+        keyPool.getGeneratedOnDemandCount());
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+/** Keys the subcommands run through their outputs, addressed by key index. */
+public interface KeySource {
+  /** Key pair at the index, invoked concurrently from pipeline producers. */
+  BLSKeyPair keyPair(int index);
+
+  /**
+   * Whether an index always yields the same key, so runs topping up an output skip the keys already
+   * present instead of counting them.
+   */
+  boolean isDeterministic();
+}
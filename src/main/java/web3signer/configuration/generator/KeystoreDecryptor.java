@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.pegasys.teku.bls.BLSKeyPair;
+import tech.pegasys.teku.bls.BLSSecretKey;
+import tech.pegasys.teku.bls.keystore.KeyStore;
+import tech.pegasys.teku.bls.keystore.KeyStoreLoader;
+import tech.pegasys.teku.bls.keystore.model.KdfParam;
+import tech.pegasys.teku.bls.keystore.model.KeyStoreData;
+import tech.pegasys.teku.bls.keystore.model.SCryptParam;
+
+/**
+ * Decrypts existing EIP-2335 keystores. The password is checked by comparing the public key of the
+ * decrypted secret key with the keystore's {@code pubkey}, which saves running the KDF a second
+ * time for the checksum. Like {@link KeystoreKdf}, derivations are admitted against a heap budget,
+ * here weighted by the scrypt memory cost of each keystore since imported keystores can use any
+ * parameters.
+ */
+public class KeystoreDecryptor {
+  private static final Logger LOG = LoggerFactory.getLogger(KeystoreDecryptor.class);
+  private static final double HEAP_BUDGET_RATIO = 0.75;
+  private static final Metrics.Stage METRICS = Metrics.stage("keystore-decrypt");
+
+  private final Function<Path, String> passwords;
+  private final int heapBudgetMiB;
+  private final Semaphore heapBudget;
+
+  /** @param passwords password of a keystore file */
+  public KeystoreDecryptor(final Function<Path, String> passwords) {
+    this.passwords = passwords;
+    final Runtime runtime = Runtime.getRuntime();
+    final long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+    this.heapBudgetMiB =
+        (int)
+            Math.max(
+                1,
+                Math.min(
+                    Integer.MAX_VALUE,
+                    (long) ((runtime.maxMemory() - usedMemory) * HEAP_BUDGET_RATIO) >> 20));
+    this.heapBudget = new Semaphore(heapBudgetMiB);
+  }
+
+  /**
+   * @return the key pair, empty if the file isn't a readable keystore or the password doesn't
+   *     decrypt it
+   */
+  public Optional<BLSKeyPair> decrypt(final Path keystoreFile) {
+    final KeyStoreData keyStoreData;
+    final String password;
+    try {
+      keyStoreData = KeyStoreLoader.loadFromFile(keystoreFile);
+      password = passwords.apply(keystoreFile);
+    } catch (final RuntimeException e) {
+      METRICS.recordFailure();
+      LOG.warn("Skipping {}: {}", keystoreFile, e.getMessage());
+      return Optional.empty();
+    }
+
+    final int memoryMiB = Math.min(heapBudgetMiB, memoryCostMiB(keyStoreData.getKdf().getParam()));
+    heapBudget.acquireUninterruptibly(memoryMiB);
+    final long startNanos = System.nanoTime();
+    final Optional<BLSKeyPair> blsKeyPair;
+    try {
+      blsKeyPair = decrypt(keyStoreData, password);
+    } finally {
+      heapBudget.release(memoryMiB);
+    }
+    if (blsKeyPair.isEmpty()) {
+      METRICS.recordFailure();
+      LOG.warn("Skipping {}: invalid password", keystoreFile);
+    } else {
+      METRICS.recordSince(startNanos);
+    }
+    return blsKeyPair;
+  }
+
+  private static Optional<BLSKeyPair> decrypt(
+      final KeyStoreData keyStoreData, final String password) {
+    final Bytes expectedPublicKey = keyStoreData.getPubkey();
+    final boolean hasPublicKey = expectedPublicKey != null && !expectedPublicKey.isEmpty();
+    // the pubkey field is optional, without it the checksum has to vouch for the password
+    if (!hasPublicKey && !KeyStore.validatePassword(password, keyStoreData)) {
+      return Optional.empty();
+    }
+    final BLSKeyPair blsKeyPair;
+    try {
+      blsKeyPair =
+          new BLSKeyPair(
+              BLSSecretKey.fromBytes(Bytes32.wrap(KeyStore.decrypt(password, keyStoreData))));
+    } catch (final IllegalArgumentException e) {
+      // a wrong password can decrypt to a value that isn't a valid secret key
+      return Optional.empty();
+    }
+    if (hasPublicKey && !blsKeyPair.getPublicKey().toBytesCompressed().equals(expectedPublicKey)) {
+      return Optional.empty();
+    }
+    return Optional.of(blsKeyPair);
+  }
+
+  private static int memoryCostMiB(final KdfParam kdfParam) {
+    if (kdfParam instanceof SCryptParam scryptParam) {
+      return (int) Math.max(1, (128L * scryptParam.getN() * scryptParam.getR()) >> 20);
+    }
+    return 0;
+  }
+}
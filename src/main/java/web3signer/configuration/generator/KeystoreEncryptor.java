@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes32;
+import tech.pegasys.teku.bls.keystore.KeyStore;
+import tech.pegasys.teku.bls.keystore.model.CipherFunction;
+import tech.pegasys.teku.bls.keystore.model.KdfParam;
+import tech.pegasys.teku.bls.keystore.model.KeyStoreData;
+
+/**
+ * Encrypts BLS secret keys into EIP-2335 keystore json.
+ *
+ * <p>By default every keystore gets a fresh salt and is encrypted by teku's {@link KeyStore}. In
+ * shared KDF mode, intended for test fixtures only, the KDF runs once with a single salt and the
+ * derived key is reused for every keystore. Each keystore then only gets a fresh AES-128-CTR IV,
+ * which turns the cost of {@code n} keystores from {@code n} KDF runs into one KDF run plus
+ * {@code n} AES encryptions. As teku runs the KDF on every encryption, this mode encrypts the
+ * keystores itself.
+ */
+public class KeystoreEncryptor {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final int IV_LENGTH = 16;
+  private static final int KEYSTORE_VERSION = 4;
+
+  private final KeystoreKdf keystoreKdf;
+  private final String password;
+  private final Optional<DerivedKey> sharedDerivedKey;
+
+  private record DerivedKey(Map<String, Object> kdf, SecretKeySpec cipherKey, byte[] checksumKey) {}
+
+  private KeystoreEncryptor(
+      final KeystoreKdf keystoreKdf, final String password, final boolean sharedKdf) {
+    this.keystoreKdf = keystoreKdf;
+    this.password = password;
+    this.sharedDerivedKey = sharedKdf ? Optional.of(deriveKey()) : Optional.empty();
+  }
+
+  /** Runs the KDF with a fresh salt for every keystore. */
+  public static KeystoreEncryptor create(final KeystoreKdf keystoreKdf, final String password) {
+    return new KeystoreEncryptor(keystoreKdf, password, false);
+  }
+
+  /**
+   * Runs the KDF once and reuses the derived key and salt for every keystore. Must not be used for
+   * real validator keys.
+   */
+  public static KeystoreEncryptor sharedKdf(final KeystoreKdf keystoreKdf, final String password) {
+    return new KeystoreEncryptor(keystoreKdf, password, true);
+  }
+
+  public boolean isSharedKdf() {
+    return sharedDerivedKey.isPresent();
+  }
+
+  private DerivedKey deriveKey() {
+    final Bytes32 salt = Bytes32.random(BLSKeyGenerator.getSecureRandom());
+    final KdfParam kdfParam = keystoreKdf.createKdfParam(salt);
+    final Bytes normalizedPassword = normalizePassword(password);
+    final byte[] decryptionKey =
+        keystoreKdf
+            .derive(() -> kdfParam.generateDecryptionKey(normalizedPassword))
+            .toArrayUnsafe();
+    return new DerivedKey(
+        kdfJson(salt),
+        new SecretKeySpec(Arrays.copyOfRange(decryptionKey, 0, 16), "AES"),
+        Arrays.copyOfRange(decryptionKey, 16, 32));
+  }
+
+  /** Returns EIP-2335 keystore json of the secret key. */
+  public byte[] encrypt(final Bytes secretKey, final Bytes publicKey) {
+    final Bytes iv = Bytes.random(IV_LENGTH, BLSKeyGenerator.getSecureRandom());
+    return sharedDerivedKey
+        .map(derivedKey -> encryptWithDerivedKey(derivedKey, secretKey, publicKey, iv))
+        .orElseGet(() -> encryptWithKeyStore(secretKey, publicKey, iv));
+  }
+
+  private byte[] encryptWithKeyStore(final Bytes secretKey, final Bytes publicKey, final Bytes iv) {
+    final Bytes32 salt = Bytes32.random(BLSKeyGenerator.getSecureRandom());
+    final KdfParam kdfParam = keystoreKdf.createKdfParam(salt);
+    final tech.pegasys.teku.bls.keystore.model.Cipher cipher =
+        new tech.pegasys.teku.bls.keystore.model.Cipher(CipherFunction.AES_128_CTR, iv);
+    final KeyStoreData keyStoreData =
+        keystoreKdf.derive(
+            () -> KeyStore.encrypt(secretKey, publicKey, password, "", kdfParam, cipher));
+    return toJson(
+        kdfJson(salt),
+        keyStoreData.getChecksum().getMessage(),
+        iv,
+        keyStoreData.getCipher().getMessage(),
+        publicKey);
+  }
+
+  private static byte[] encryptWithDerivedKey(
+      final DerivedKey derivedKey, final Bytes secretKey, final Bytes publicKey, final Bytes iv) {
+    final byte[] cipherMessage;
+    final byte[] checksum;
+    try {
+      final Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+      cipher.init(
+          Cipher.ENCRYPT_MODE, derivedKey.cipherKey(), new IvParameterSpec(iv.toArrayUnsafe()));
+      cipherMessage = cipher.doFinal(secretKey.toArrayUnsafe());
+
+      final MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      sha256.update(derivedKey.checksumKey());
+      checksum = sha256.digest(cipherMessage);
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException("Unable to encrypt keystore", e);
+    }
+    return toJson(derivedKey.kdf(), Bytes.wrap(checksum), iv, Bytes.wrap(cipherMessage), publicKey);
+  }
+
+  private Map<String, Object> kdfJson(final Bytes32 salt) {
+    final Map<String, Object> kdf = new LinkedHashMap<>();
+    kdf.put("function", keystoreKdf.getFunction().toString());
+    kdf.put("params", keystoreKdf.createKdfParamsJson(salt));
+    kdf.put("message", "");
+    return kdf;
+  }
+
+  private static byte[] toJson(
+      final Map<String, Object> kdf,
+      final Bytes checksum,
+      final Bytes iv,
+      final Bytes cipherMessage,
+      final Bytes publicKey) {
+    final Map<String, Object> crypto = new LinkedHashMap<>();
+    crypto.put("kdf", kdf);
+    crypto.put(
+        "checksum",
+        Map.of(
+            "function",
+            "sha256",
+            "params",
+            Map.of(),
+            "message",
+            checksum.toUnprefixedHexString()));
+    crypto.put(
+        "cipher",
+        Map.of(
+            "function",
+            "aes-128-ctr",
+            "params",
+            Map.of("iv", iv.toUnprefixedHexString()),
+            "message",
+            cipherMessage.toUnprefixedHexString()));
+
+    final Map<String, Object> keystore = new LinkedHashMap<>();
+    keystore.put("crypto", crypto);
+    keystore.put("description", "");
+    keystore.put("pubkey", publicKey.toUnprefixedHexString());
+    keystore.put("path", "");
+    keystore.put("uuid", randomUuid().toString());
+    keystore.put("version", KEYSTORE_VERSION);
+    try {
+      return OBJECT_MAPPER.writeValueAsBytes(keystore);
+    } catch (final JsonProcessingException e) {
+      throw new IllegalStateException("Unable to serialize keystore", e);
+    }
+  }
+
+  /**
+   * Version 4 UUID drawn from {@link BLSKeyGenerator#getSecureRandom()}, as {@link
+   * UUID#randomUUID()} would contend on the JDK's shared SecureRandom.
+   */
+  private static UUID randomUuid() {
+    final byte[] bytes = new byte[16];
+    BLSKeyGenerator.getSecureRandom().nextBytes(bytes);
+    bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x40); // version 4
+    bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80); // IETF variant
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+
+  /** EIP-2335 password processing: NFKD normalization and removal of control codes. */
+  private static Bytes normalizePassword(final String password) {
+    final String normalizedPassword = Normalizer.normalize(password, Normalizer.Form.NFKD);
+    return Bytes.wrap(
+        normalizedPassword.replaceAll("[\\x00-\\x1F\\x7F-\\x9F]", "").getBytes(UTF_8));
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static tech.pegasys.teku.bls.keystore.model.Pbkdf2PseudoRandomFunction.HMAC_SHA256;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.apache.tuweni.bytes.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.pegasys.teku.bls.keystore.model.KdfParam;
+import tech.pegasys.teku.bls.keystore.model.Pbkdf2Param;
+import tech.pegasys.teku.bls.keystore.model.SCryptParam;
+
+/**
+ * KDF settings for keystore encryption together with admission control that caps how many key
+ * derivations run at once, so that memory hard functions (scrypt needs {@code 128 * N * r} bytes
+ * per derivation) can't exhaust the heap regardless of the number of worker threads.
+ */
+public class KeystoreKdf {
+  private static final Logger LOG = LoggerFactory.getLogger(KeystoreKdf.class);
+  private static final int DKLEN = 32;
+  private static final double HEAP_BUDGET_RATIO = 0.75;
+  private static final Metrics.Stage KDF_METRICS = Metrics.stage("kdf");
+
+  public enum Function {
+    PBKDF2("pbkdf2"),
+    SCRYPT("scrypt");
+
+    private final String label;
+
+    Function(final String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String toString() {
+      return label;
+    }
+
+    public static class Converter extends LabelledEnumConverter<Function> {
+      public Converter() {
+        super(values());
+      }
+    }
+  }
+
+  private final Function function;
+  private final int pbkdf2Counter;
+  private final int scryptN;
+  private final int scryptR;
+  private final int scryptP;
+  private final int maxConcurrentDerivations;
+  private final Semaphore admission;
+
+  private KeystoreKdf(
+      final Function function,
+      final int pbkdf2Counter,
+      final int scryptN,
+      final int scryptR,
+      final int scryptP,
+      final int threads) {
+    this.function = function;
+    this.pbkdf2Counter = pbkdf2Counter;
+    this.scryptN = scryptN;
+    this.scryptR = scryptR;
+    this.scryptP = scryptP;
+    this.maxConcurrentDerivations = maxConcurrentDerivations(memoryCost(), threads);
+    this.admission = new Semaphore(maxConcurrentDerivations);
+  }
+
+  public static KeystoreKdf pbkdf2(final int counter, final int threads) {
+    return new KeystoreKdf(Function.PBKDF2, counter, 0, 0, 0, threads);
+  }
+
+  public static KeystoreKdf scrypt(final int n, final int r, final int p, final int threads) {
+    return new KeystoreKdf(Function.SCRYPT, 0, n, r, p, threads);
+  }
+
+  public KdfParam createKdfParam(final Bytes salt) {
+    return function == Function.SCRYPT
+        ? new SCryptParam(DKLEN, scryptN, scryptP, scryptR, salt)
+        : new Pbkdf2Param(DKLEN, pbkdf2Counter, HMAC_SHA256, salt);
+  }
+
+  public Function getFunction() {
+    return function;
+  }
+
+  /** EIP-2335 {@code crypto.kdf.params} for the salt. */
+  public Map<String, Object> createKdfParamsJson(final Bytes salt) {
+    final Map<String, Object> params = new LinkedHashMap<>();
+    params.put("dklen", DKLEN);
+    if (function == Function.SCRYPT) {
+      params.put("n", scryptN);
+      params.put("r", scryptR);
+      params.put("p", scryptP);
+    } else {
+      params.put("c", pbkdf2Counter);
+      params.put("prf", "hmac-sha256");
+    }
+    params.put("salt", salt.toUnprefixedHexString());
+    return params;
+  }
+
+  /** Approximate number of bytes a single derivation allocates. */
+  public long memoryCost() {
+    return function == Function.SCRYPT ? 128L * scryptN * scryptR : 0;
+  }
+
+  public int getMaxConcurrentDerivations() {
+    return maxConcurrentDerivations;
+  }
+
+  /** Runs the key derivation once the memory budget allows another one to start. */
+  public <T> T derive(final Supplier<T> derivation) {
+    admission.acquireUninterruptibly();
+    try {
+      final long startNanos = System.nanoTime();
+      final T derived = derivation.get();
+      KDF_METRICS.recordSince(startNanos);
+      return derived;
+    } catch (final RuntimeException e) {
+      KDF_METRICS.recordFailure();
+      throw e;
+    } finally {
+      admission.release();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return function == Function.SCRYPT
+        ? String.format("scrypt(n=%d, r=%d, p=%d)", scryptN, scryptR, scryptP)
+        : String.format("pbkdf2(c=%d)", pbkdf2Counter);
+  }
+
+  private static int maxConcurrentDerivations(final long memoryCost, final int threads) {
+    if (memoryCost == 0) {
+      return threads;
+    }
+    final Runtime runtime = Runtime.getRuntime();
+    final long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+    final long budget = (long) ((runtime.maxMemory() - usedMemory) * HEAP_BUDGET_RATIO);
+    final long affordable = budget / memoryCost;
+    if (affordable < 1) {
+      throw new IllegalArgumentException(
+          String.format(
+              "KDF needs %d MiB per derivation but only %d MiB of heap is available, increase -Xmx",
+              memoryCost >> 20, budget >> 20));
+    }
+    final int maxConcurrent = (int) Math.min(threads, affordable);
+    if (maxConcurrent < threads) {
+      LOG.info(
+          "Limiting concurrent KDF derivations to {} ({} MiB each, {} MiB heap budget)",
+          maxConcurrent,
+          memoryCost >> 20,
+          budget >> 20);
+    }
+    return maxConcurrent;
+  }
+}
@@ -13,12 +13,15 @@
 package web3signer.configuration.generator;
 
 import java.nio.file.Path;
-import java.util.Set;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
 import tech.pegasys.teku.bls.BLSKeyPair;
 
 @Command(name = "keystores")
@@ -43,12 +46,24 @@ public class KeystoresSubcommand implements Callable<Integer> {
       description = "Number of keys to generate and insert. Default: ${DEFAULT-VALUE}")
   int count = 50;
 
+  @Mixin KeyGenerationOptions keyGenerationOptions;
+
+  @Mixin KdfOptions kdfOptions;
+
+  @Mixin OutputOptions outputOptions;
+
+  @Mixin MetricsOptions metricsOptions;
+
+  /** {@link ImportSubcommand} when keys are imported rather than generated. */
+  @ParentCommand Object parent;
+
   @Option(
-      names = "--kdf-counter",
-      description = "Iterative count for KDF (Key Derivation Function). Default: ${DEFAULT-VALUE}",
-      paramLabel = "<NUMBER>",
-      defaultValue = "16")
-  int kdfCounter = 16;
+      names = "--shared-kdf",
+      description =
+          "Test fixture mode: run the KDF once and encrypt every keystore with the same derived"
+              + " key and salt, only the IV differs. Much faster at realistic KDF strengths but"
+              + " must not be used for real keys. Default: ${DEFAULT-VALUE}")
+  boolean sharedKdf = false;
 
   @Option(
       names = "--generate-config",
@@ -60,13 +75,69 @@ public class KeystoresSubcommand implements Callable<Integer> {
 
   @Override
   public Integer call() {
-    LOG.info("Generating {} BLS Keys", count);
-    final Set<BLSKeyPair> blsKeyPairs = new BLSKeyGenerator().generate(count);
+    final ImportSubcommand importSubcommand =
+        parent instanceof ImportSubcommand importParent ? importParent : null;
+    final IndexRange indexRange = keyGenerationOptions.indexRange(count);
+    final KeySource keySource = keyGenerationOptions.createKeySource();
+    final ExistingKeyIndex existingKeys = outputOptions.indexExistingKeys(outputDir);
+    final Optional<IndexRange> range =
+        existingKeys.rangeToGenerate(indexRange, keySource.isDeterministic());
+    if (importSubcommand != null) {
+      LOG.info(
+          "Creating Web3Signer configuration files and keystores of imported keys in {}",
+          outputDir);
+    } else if (range.isEmpty()) {
+      LOG.info("{} already holds {} keys, nothing to top up", outputDir, existingKeys.size());
+      return 0;
+    } else {
+      LOG.info(
+          "Generating {} BLS Keys, Web3Signer configuration files and keystores in {}",
+          range.get().size(),
+          outputDir);
+    }
+    final KeystoreKdf keystoreKdf = kdfOptions.createKeystoreKdf();
+    LOG.info(
+        "Encrypting keystores with {} on {} threads", keystoreKdf, kdfOptions.getKdfThreads());
+    if (sharedKdf) {
+      LOG.warn("Using a single derived key for all keystores, only suitable for test fixtures");
+    }
+    final KeystoreEncryptor keystoreEncryptor =
+        sharedKdf
+            ? KeystoreEncryptor.sharedKdf(
+                keystoreKdf, Web3SignerYamlConfiguration.KEYSTORE_PASSWORD)
+            : KeystoreEncryptor.create(keystoreKdf, Web3SignerYamlConfiguration.KEYSTORE_PASSWORD);
+    if (!generateConfig) {
+      LOG.info("Skipping configuration file generation");
+    }
 
-    LOG.info("Creating Web3Signer configuration files and keystores in {}", outputDir);
-    new Web3SignerYamlConfiguration(outputDir)
-        .createKeystoreConfigurationFiles(
-            blsKeyPairs, generateConfig, outputDirInConfig, kdfCounter);
+    final Web3SignerYamlConfiguration configuration =
+        new Web3SignerYamlConfiguration(
+            outputDir,
+            outputOptions.createOutputWriter(outputDir),
+            outputOptions.getBundleSize(),
+            outputOptions.getFileNaming());
+    try (final MetricsReporter metricsReporter = metricsOptions.startReporter();
+        configuration) {
+      if (outputOptions.isTopUp()) {
+        configuration.keepExistingManifest();
+      }
+      configuration.createKeystorePasswordFile();
+      final Predicate<BLSKeyPair> sink =
+          blsKeyPair ->
+              !existingKeys.contains(blsKeyPair)
+                  && configuration.createKeystoreConfigurationFile(
+                      blsKeyPair, generateConfig, outputDirInConfig, keystoreEncryptor);
+      if (importSubcommand != null) {
+        importSubcommand.importKeys(kdfOptions.getKdfThreads(), ExecutorMode.PLATFORM, sink);
+      } else {
+        new KeyPipeline(kdfOptions.getKdfThreads())
+            .run(range.get().start(), range.get().end(), keySource::keyPair, sink);
+      }
+    }
+    LOG.info(
+        "Created {} keystore/configuration files in {}",
+        configuration.getWrittenCount(),
+        outputDir);
     return 0;
   }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import picocli.CommandLine;
+import picocli.CommandLine.TypeConversionException;
+
+/** Converts an option value to the enum constant whose {@code toString()} label matches it. */
+public abstract class LabelledEnumConverter<E extends Enum<E>>
+    implements CommandLine.ITypeConverter<E> {
+  private final E[] values;
+
+  protected LabelledEnumConverter(final E[] values) {
+    this.values = values;
+  }
+
+  @Override
+  public E convert(final String value) throws TypeConversionException {
+    return Arrays.stream(values)
+        .filter(constant -> constant.toString().equalsIgnoreCase(value))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new TypeConversionException(
+                    "Invalid value '" + value + "', expecting one of: " + labels()));
+  }
+
+  private String labels() {
+    return Arrays.stream(values).map(E::toString).collect(Collectors.joining(", "));
+  }
+}
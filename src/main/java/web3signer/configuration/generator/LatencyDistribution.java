@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import picocli.CommandLine;
+import picocli.CommandLine.TypeConversionException;
+
+/**
+ * Distribution of injected response latencies in milliseconds.
+ *
+ * <ul>
+ *   <li>{@code fixed:<ms>}, or just {@code <ms>}
+ *   <li>{@code uniform:<min>..<max>}
+ *   <li>{@code exponential:<mean>}
+ *   <li>{@code lognormal:<median>,<sigma>}, long tailed like most real services
+ * </ul>
+ */
+public record LatencyDistribution(Kind kind, double first, double second) {
+  public static final LatencyDistribution NONE = new LatencyDistribution(Kind.FIXED, 0, 0);
+
+  public enum Kind {
+    FIXED,
+    UNIFORM,
+    EXPONENTIAL,
+    LOGNORMAL
+  }
+
+  public LatencyDistribution {
+    if (first < 0 || second < 0 || (kind == Kind.UNIFORM && second < first)) {
+      throw new IllegalArgumentException("Invalid latency distribution " + kind + " " + first);
+    }
+  }
+
+  public long sampleNanos(final RandomGenerator random) {
+    final double millis =
+        switch (kind) {
+          case FIXED -> first;
+          case UNIFORM -> first + random.nextDouble() * (second - first);
+          case EXPONENTIAL -> -first * Math.log(1 - random.nextDouble());
+          case LOGNORMAL -> first * Math.exp(second * random.nextGaussian());
+        };
+    return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  @Override
+  public String toString() {
+    final String name = kind.name().toLowerCase(Locale.ROOT);
+    return switch (kind) {
+      case FIXED, EXPONENTIAL -> name + ":" + first;
+      case UNIFORM -> name + ":" + first + ".." + second;
+      case LOGNORMAL -> name + ":" + first + "," + second;
+    };
+  }
+
+  public static class Converter implements CommandLine.ITypeConverter<LatencyDistribution> {
+    @Override
+    public LatencyDistribution convert(final String value) throws TypeConversionException {
+      final int separator = value.indexOf(':');
+      final String kind =
+          separator < 0 ? "fixed" : value.substring(0, separator).toLowerCase(Locale.ROOT);
+      final String parameters = value.substring(separator + 1);
+      try {
+        return switch (kind) {
+          case "fixed" -> new LatencyDistribution(Kind.FIXED, Double.parseDouble(parameters), 0);
+          case "exponential" ->
+              new LatencyDistribution(Kind.EXPONENTIAL, Double.parseDouble(parameters), 0);
+          case "uniform" -> {
+            final String[] bounds = parameters.split("\\.\\.", -1);
+            if (bounds.length != 2) {
+              throw new TypeConversionException(
+                  "Invalid format: expecting uniform:<min>..<max> but was '" + value + "'");
+            }
+            yield new LatencyDistribution(
+                Kind.UNIFORM, Double.parseDouble(bounds[0]), Double.parseDouble(bounds[1]));
+          }
+          case "lognormal" -> {
+            final String[] shape = parameters.split(",", -1);
+            if (shape.length != 2) {
+              throw new TypeConversionException(
+                  "Invalid format: expecting lognormal:<median>,<sigma> but was '" + value + "'");
+            }
+            yield new LatencyDistribution(
+                Kind.LOGNORMAL, Double.parseDouble(shape[0]), Double.parseDouble(shape[1]));
+          }
+          default ->
+              throw new TypeConversionException(
+                  "Invalid latency distribution '"
+                      + value
+                      + "', expecting fixed, uniform, exponential or lognormal");
+        };
+      } catch (final NumberFormatException e) {
+        throw new TypeConversionException(
+            "Invalid format: expecting numeric latency in milliseconds but was '" + value + "'");
+      } catch (final IllegalArgumentException e) {
+        throw new TypeConversionException(e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of latencies in nanoseconds. Buckets are log-linear, 8 linear sub-buckets
+ * per power of two, so quantiles are within 12.5% of the recorded values. Each bucket is a {@link
+ * LongAdder}, recording never blocks and stays cheap under contention.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+  private final LongAdder sumNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  public void record(final long latencyNanos) {
+    final long nanos = Math.max(0, latencyNanos);
+    buckets[bucketIndex(nanos)].increment();
+    sumNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+  }
+
+  public Snapshot snapshot() {
+    final long[] counts = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      count += counts[i];
+    }
+    return new Snapshot(counts, count, sumNanos.sum(), maxNanos.get());
+  }
+
+  private static int bucketIndex(final long nanos) {
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /** Largest latency falling into the bucket. */
+  private static long bucketUpperBound(final int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final int subBucket = index % SUB_BUCKETS;
+    return ((SUB_BUCKETS + subBucket + 1L) << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+
+  /** Point in time copy of the histogram, not atomic with respect to concurrent recording. */
+  public record Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+
+    /** Latencies recorded since {@code previous}, the maximum is the overall maximum. */
+    public Snapshot since(final Snapshot previous) {
+      final long[] delta = new long[counts.length];
+      for (int i = 0; i < counts.length; i++) {
+        delta[i] = counts[i] - previous.counts[i];
+      }
+      return new Snapshot(delta, count - previous.count, sumNanos - previous.sumNanos, maxNanos);
+    }
+
+    /** @param percentile between 0 and 100 */
+    public long valueAtPercentile(final double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(bucketUpperBound(i), maxNanos);
+        }
+      }
+      return maxNanos;
+    }
+
+    public double meanNanos() {
+      return count == 0 ? 0 : (double) sumNanos / count;
+    }
+
+    public static double toMillis(final double nanos) {
+      return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import org.apache.tuweni.bytes.Bytes;
+import org.apache.tuweni.bytes.Bytes48;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+@Command(
+    name = "lookup",
+    description =
+        "Find the files holding public keys through the pubkey manifest of an output directory,"
+            + " without scanning the directory.")
+public class LookupSubcommand implements Callable<Integer> {
+  @Spec CommandSpec spec;
+
+  @Option(
+      names = "--output",
+      description = "Output directory of a previous run. Default: ${DEFAULT-VALUE}")
+  Path outputDir = Path.of("./keys");
+
+  @Option(
+      names = "--manifest",
+      paramLabel = "<FILE>",
+      description = "Manifest to search. Default: pubkeys.manifest in the output directory")
+  Path manifestFile = null;
+
+  @Parameters(
+      arity = "1..*",
+      paramLabel = "<PUBKEY>",
+      description = "Hex encoded compressed BLS public keys")
+  List<String> publicKeys = new ArrayList<>();
+
+  @Override
+  public Integer call() throws Exception {
+    final List<Bytes48> keys = new ArrayList<>();
+    for (final String publicKey : publicKeys) {
+      keys.add(parsePublicKey(publicKey));
+    }
+    final Path manifestPath =
+        manifestFile != null ? manifestFile : outputDir.resolve(PubkeyManifest.FILE_NAME);
+    final PubkeyManifest manifest = PubkeyManifest.open(manifestPath);
+
+    int missing = 0;
+    for (final Bytes48 key : keys) {
+      final Optional<PubkeyManifest.Entry> entry = manifest.lookup(key);
+      if (entry.isEmpty()) {
+        System.out.println(key + "\tnot found");
+        missing++;
+        continue;
+      }
+      final PubkeyManifest.Entry found = entry.get();
+      final StringBuilder line =
+          new StringBuilder()
+              .append(key)
+              .append('\t')
+              .append(found.type())
+              .append('\t')
+              .append(manifestPath.resolveSibling(found.file()));
+      if (found.vaultPath() != null) {
+        line.append('\t').append(found.vaultPath()).append('\t').append(found.keyName());
+      }
+      System.out.println(line);
+    }
+    return missing == 0 ? 0 : 1;
+  }
+
+  private Bytes48 parsePublicKey(final String publicKey) {
+    try {
+      final Bytes bytes = Bytes.fromHexString(publicKey);
+      if (bytes.size() == 48) {
+        return Bytes48.wrap(bytes);
+      }
+    } catch (final IllegalArgumentException e) {
+      // reported below
+    }
+    throw new ParameterException(
+        spec.commandLine(), "Invalid public key, expecting 48 hex encoded bytes: " + publicKey);
+  }
+}
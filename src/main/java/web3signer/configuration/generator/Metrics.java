@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide counters and latency histograms of the pipeline stages (key generation, KDF, file
+ * writes, vault requests), reported by {@link MetricsReporter}. Recording only adds to striped
+ * counters, so it can be called from every worker without serializing them.
+ */
+public final class Metrics {
+  private static final Map<String, Stage> STAGES_BY_NAME = new ConcurrentHashMap<>();
+  private static final List<Stage> STAGES = new CopyOnWriteArrayList<>();
+
+  private Metrics() {}
+
+  /** Returns the stage registered under {@code name}, registering it on first use. */
+  public static Stage stage(final String name) {
+    return STAGES_BY_NAME.computeIfAbsent(
+        name,
+        stageName -> {
+          final Stage stage = new Stage(stageName);
+          STAGES.add(stage);
+          return stage;
+        });
+  }
+
+  /** Stages in registration order. */
+  public static List<Stage> stages() {
+    return List.copyOf(STAGES);
+  }
+
+  /** Completed and failed operations of a stage, with the latency of the completed ones. */
+  public static final class Stage {
+    private final String name;
+    private final LongAdder failures = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private Stage(final String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void record(final long latencyNanos) {
+      latency.record(latencyNanos);
+    }
+
+    /** Records the latency since {@code startNanos}, taken from {@link System#nanoTime()}. */
+    public void recordSince(final long startNanos) {
+      latency.record(System.nanoTime() - startNanos);
+    }
+
+    public void recordFailure() {
+      failures.increment();
+    }
+
+    public long getFailures() {
+      return failures.sum();
+    }
+
+    public LatencyHistogram.Snapshot latencySnapshot() {
+      return latency.snapshot();
+    }
+  }
+}
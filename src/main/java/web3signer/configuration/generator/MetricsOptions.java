@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+/** Options controlling progress reports and the metrics summary of a run. */
+public class MetricsOptions {
+  @Spec(Spec.Target.MIXEE)
+  CommandSpec spec;
+
+  @Option(
+      names = "--metrics-interval",
+      paramLabel = "<SECONDS>",
+      description =
+          "Seconds between progress reports of the count, throughput and latency of each stage,"
+              + " 0 to only report at the end. Default: ${DEFAULT-VALUE}")
+  int metricsIntervalSeconds = 5;
+
+  @Option(
+      names = "--metrics-out",
+      paramLabel = "<FILE>",
+      description =
+          "Write a JSON summary with count, throughput and p50/p99 latency per stage at the end.")
+  Path metricsOut = null;
+
+  public MetricsReporter startReporter() {
+    if (metricsIntervalSeconds < 0) {
+      throw new ParameterException(spec.commandLine(), "--metrics-interval must not be negative");
+    }
+    return new MetricsReporter(TimeUnit.SECONDS.toMillis(metricsIntervalSeconds), metricsOut);
+  }
+}
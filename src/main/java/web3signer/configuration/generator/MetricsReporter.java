@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the progress of each active {@link Metrics} stage at a fixed interval: its count, the
+ * throughput and p50/p99 latency over the interval. On close a summary over the whole run is
+ * logged and optionally written as JSON.
+ */
+public class MetricsReporter implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(MetricsReporter.class);
+
+  private final Path jsonSummaryFile;
+  private final ScheduledExecutorService reportExecutor;
+  private final long startNanos = System.nanoTime();
+  private final Map<String, LatencyHistogram.Snapshot> previousSnapshots = new HashMap<>();
+  private long previousReportNanos = startNanos;
+
+  /**
+   * @param intervalMillis interval between progress reports, 0 to only report on close
+   * @param jsonSummaryFile file the JSON summary is written to on close, or null
+   */
+  public MetricsReporter(final long intervalMillis, final Path jsonSummaryFile) {
+    this.jsonSummaryFile = jsonSummaryFile;
+    if (intervalMillis > 0) {
+      reportExecutor =
+          Executors.newSingleThreadScheduledExecutor(
+              ExecutorMode.PLATFORM.threadFactory("metrics-reporter"));
+      reportExecutor.scheduleAtFixedRate(
+          this::reportProgress, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    } else {
+      reportExecutor = null;
+    }
+  }
+
+  private synchronized void reportProgress() {
+    final long nowNanos = System.nanoTime();
+    final double intervalSeconds = (nowNanos - previousReportNanos) / 1e9;
+    previousReportNanos = nowNanos;
+    final StringJoiner progress = new StringJoiner(", ");
+    for (final Metrics.Stage stage : Metrics.stages()) {
+      final LatencyHistogram.Snapshot snapshot = stage.latencySnapshot();
+      final LatencyHistogram.Snapshot previous =
+          previousSnapshots.put(stage.getName(), snapshot);
+      if (snapshot.count() == 0 && stage.getFailures() == 0) {
+        continue;
+      }
+      final LatencyHistogram.Snapshot interval =
+          previous == null ? snapshot : snapshot.since(previous);
+      progress.add(
+          String.format(
+              "%s %d (%.0f/s, p50 %.2f ms, p99 %.2f ms%s)",
+              stage.getName(),
+              snapshot.count(),
+              interval.count() / intervalSeconds,
+              LatencyHistogram.Snapshot.toMillis(interval.valueAtPercentile(50)),
+              LatencyHistogram.Snapshot.toMillis(interval.valueAtPercentile(99)),
+              stage.getFailures() == 0 ? "" : ", " + stage.getFailures() + " failed"));
+    }
+    if (progress.length() > 0) {
+      LOG.info("Progress: {}", progress);
+    }
+  }
+
+  /** Stops the periodic reports, then logs and writes the summary of the run. */
+  @Override
+  public void close() {
+    if (reportExecutor != null) {
+      reportExecutor.shutdownNow();
+    }
+    final long elapsedMillis =
+        Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    final Map<String, Object> stages = new LinkedHashMap<>();
+    for (final Metrics.Stage stage : Metrics.stages()) {
+      final LatencyHistogram.Snapshot snapshot = stage.latencySnapshot();
+      if (snapshot.count() == 0 && stage.getFailures() == 0) {
+        continue;
+      }
+      final double throughput = snapshot.count() * 1000.0 / elapsedMillis;
+      final double p50 = LatencyHistogram.Snapshot.toMillis(snapshot.valueAtPercentile(50));
+      final double p99 = LatencyHistogram.Snapshot.toMillis(snapshot.valueAtPercentile(99));
+      final double max = LatencyHistogram.Snapshot.toMillis(snapshot.maxNanos());
+      final Map<String, Object> latency = new LinkedHashMap<>();
+      latency.put("mean", LatencyHistogram.Snapshot.toMillis(snapshot.meanNanos()));
+      latency.put("p50", p50);
+      latency.put("p99", p99);
+      latency.put("max", max);
+      final Map<String, Object> stageSummary = new LinkedHashMap<>();
+      stageSummary.put("count", snapshot.count());
+      stageSummary.put("failures", stage.getFailures());
+      stageSummary.put("throughputPerSecond", throughput);
+      stageSummary.put("latencyMillis", latency);
+      stages.put(stage.getName(), stageSummary);
+      LOG.info(
+          "{}: {} in {} ms, {}/s, latency p50 {} ms, p99 {} ms, max {} ms{}",
+          stage.getName(),
+          snapshot.count(),
+          elapsedMillis,
+          String.format("%.0f", throughput),
+          String.format("%.2f", p50),
+          String.format("%.2f", p99),
+          String.format("%.2f", max),
+          stage.getFailures() == 0 ? "" : ", " + stage.getFailures() + " failed");
+    }
+
+    if (jsonSummaryFile != null) {
+      try {
+        final Path parent = jsonSummaryFile.toAbsolutePath().getParent();
+        if (parent != null) {
+          Files.createDirectories(parent);
+        }
+        final Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("elapsedMillis", elapsedMillis);
+        summary.put("stages", stages);
+        // Jackson is only loaded when a summary file was asked for
+        Files.write(
+            jsonSummaryFile,
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsBytes(summary));
+        LOG.info("Wrote metrics summary to {}", jsonSummaryFile);
+      } catch (final IOException e) {
+        LOG.error("Error writing metrics summary to {}: {}", jsonSummaryFile, e.getMessage());
+      }
+    }
+  }
+}
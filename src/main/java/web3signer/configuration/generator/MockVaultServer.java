@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process stand-in for the parts of Hashicorp Vault used by this tool: {@code /v1/sys/init}
+ * and the KV v2 {@code <mount>/data/<path>} read and write endpoints. Responses can be delayed by
+ * a latency distribution, fail with 500 at a given rate and be throttled with 429, either at
+ * random or above a request rate. Requests are served on virtual threads so injected latency
+ * doesn't limit concurrency.
+ *
+ * <p>The latency, error and random throttling of a request are drawn from the seed and the
+ * request's method, path and attempt at that path, so a seed injects the same faults into the same
+ * requests however they interleave, and handlers share no generator. Throttling above a request
+ * rate depends on timing and isn't reproducible.
+ */
+public class MockVaultServer implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(MockVaultServer.class);
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String INIT_PATH = "/v1/sys/init";
+  private static final String DATA_SEGMENT = "/data/";
+
+  /** Injected faults, rates are probabilities between 0 and 1. */
+  public record Behaviour(
+      LatencyDistribution latency,
+      double errorRate,
+      double throttleRate,
+      double maxRequestsPerSecond,
+      long seed) {
+    /** Answers every request right away. */
+    public static Behaviour ideal() {
+      return new Behaviour(LatencyDistribution.NONE, 0, 0, 0, 0);
+    }
+  }
+
+  private final Behaviour behaviour;
+  private final String token;
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+  private final TokenBucketRateLimiter rateLimiter;
+  private final Map<String, String> secrets = new ConcurrentHashMap<>();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder writes = new LongAdder();
+  private final LongAdder reads = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder throttled = new LongAdder();
+
+  /**
+   * @param token expected {@code X-Vault-Token}, null accepts any token
+   */
+  public MockVaultServer(
+      final InetSocketAddress address, final String token, final Behaviour behaviour)
+      throws IOException {
+    this.behaviour = behaviour;
+    this.token = token;
+    this.rateLimiter = new TokenBucketRateLimiter(behaviour.maxRequestsPerSecond());
+    this.server = HttpServer.create(address, 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+  }
+
+  public MockVaultServer start() {
+    server.start();
+    LOG.info("Mock vault listening on {} with {}", getSecretsEndpoint(), behaviour);
+    return this;
+  }
+
+  /** KV v2 mount to pass to the hashicorp subcommand's {@code --url}. */
+  public URI getSecretsEndpoint() {
+    final InetSocketAddress address = server.getAddress();
+    return URI.create(
+        "http://" + address.getHostString() + ":" + address.getPort() + "/v1/secret");
+  }
+
+  public int getSecretCount() {
+    return secrets.size();
+  }
+
+  private void handle(final HttpExchange exchange) throws IOException {
+    try (exchange) {
+      requests.increment();
+      final String path = exchange.getRequestURI().getPath();
+      final String method = exchange.getRequestMethod();
+      final byte[] body = exchange.getRequestBody().readAllBytes();
+      if (INIT_PATH.equals(path) && "GET".equals(method)) {
+        respond(exchange, 200, "{\"initialized\":true}");
+        return;
+      }
+
+      final SplittableRandom random = requestRandom(method + " " + path);
+      final long latencyNanos = behaviour.latency().sampleNanos(random);
+      if (latencyNanos > 0) {
+        TimeUnit.NANOSECONDS.sleep(latencyNanos);
+      }
+      if (token != null && !token.equals(exchange.getRequestHeaders().getFirst("X-Vault-Token"))) {
+        respond(exchange, 403, "{\"errors\":[\"permission denied\"]}");
+        return;
+      }
+      if (!rateLimiter.tryAcquire() || random.nextDouble() < behaviour.throttleRate()) {
+        throttled.increment();
+        exchange.getResponseHeaders().add("Retry-After", "1");
+        respond(exchange, 429, "{\"errors\":[\"request rate limit exceeded\"]}");
+        return;
+      }
+      if (random.nextDouble() < behaviour.errorRate()) {
+        errors.increment();
+        respond(exchange, 500, "{\"errors\":[\"injected error\"]}");
+        return;
+      }
+      if (!path.contains(DATA_SEGMENT)) {
+        respond(exchange, 404, "{\"errors\":[]}");
+        return;
+      }
+      switch (method) {
+        case "POST", "PUT" -> write(exchange, path, body);
+        case "GET" -> read(exchange, path);
+        default -> respond(exchange, 405, "{\"errors\":[]}");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Generator of the next attempt of {@code request}, independent of other requests. */
+  private SplittableRandom requestRandom(final String request) {
+    final int attempt = attempts.merge(request, 1, Integer::sum);
+    return new SplittableRandom(
+        behaviour.seed() ^ ((long) request.hashCode() << 32 | (attempt & 0xFFFFFFFFL)));
+  }
+
+  private void write(final HttpExchange exchange, final String path, final byte[] body)
+      throws IOException {
+    final JsonNode data;
+    try {
+      data = OBJECT_MAPPER.readTree(body).get("data");
+    } catch (final IOException e) {
+      respond(exchange, 400, "{\"errors\":[\"failed to parse JSON input\"]}");
+      return;
+    }
+    if (data == null || !data.isObject()) {
+      respond(exchange, 400, "{\"errors\":[\"no data provided\"]}");
+      return;
+    }
+    secrets.put(path, data.toString());
+    writes.increment();
+    respond(exchange, 200, "{\"data\":{\"version\":1,\"destroyed\":false}}");
+  }
+
+  private void read(final HttpExchange exchange, final String path) throws IOException {
+    final String data = secrets.get(path);
+    if (data == null) {
+      respond(exchange, 404, "{\"errors\":[]}");
+      return;
+    }
+    reads.increment();
+    respond(exchange, 200, "{\"data\":{\"data\":" + data + ",\"metadata\":{\"version\":1}}}");
+  }
+
+  private static void respond(final HttpExchange exchange, final int status, final String body)
+      throws IOException {
+    final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (final OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  public void logSummary() {
+    LOG.info(
+        "Mock vault: {} requests, {} writes, {} reads, {} secrets, {} throttled, {} errors",
+        requests.sum(),
+        writes.sum(),
+        reads.sum(),
+        secrets.size(),
+        throttled.sum(),
+        errors.sum());
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
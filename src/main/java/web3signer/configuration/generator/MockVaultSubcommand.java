@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+@Command(
+    name = "mock-vault",
+    description =
+        "Run a Hashicorp Vault stand-in (sys/init and KV v2) with injected latency, errors and"
+            + " throttling, for load and regression testing of the hashicorp subcommand.")
+public class MockVaultSubcommand implements Callable<Integer> {
+  private static final Logger LOG = LoggerFactory.getLogger(MockVaultSubcommand.class);
+
+  @Spec CommandSpec spec;
+
+  @Option(names = "--host", description = "Address to listen on. Default: ${DEFAULT-VALUE}")
+  private String host = "127.0.0.1";
+
+  @Option(
+      names = "--port",
+      description = "Port to listen on, 0 picks a free port. Default: ${DEFAULT-VALUE}")
+  private int port = 8200;
+
+  @Option(
+      names = "--token-file",
+      description =
+          "Path to file that contains the expected token, any token is accepted if unset")
+  private Path tokenFile = null;
+
+  @Option(
+      names = "--latency",
+      converter = LatencyDistribution.Converter.class,
+      paramLabel = "<DISTRIBUTION>",
+      description =
+          "Latency added to every secret request in milliseconds: <ms>, uniform:<min>..<max>,"
+              + " exponential:<mean> or lognormal:<median>,<sigma>. Default: 0")
+  private LatencyDistribution latency = LatencyDistribution.NONE;
+
+  @Option(
+      names = "--error-rate",
+      paramLabel = "<RATE>",
+      description = "Fraction of secret requests failing with 500. Default: ${DEFAULT-VALUE}")
+  private double errorRate = 0;
+
+  @Option(
+      names = "--throttle-rate",
+      paramLabel = "<RATE>",
+      description =
+          "Fraction of secret requests rejected with 429 at random. Default: ${DEFAULT-VALUE}")
+  private double throttleRate = 0;
+
+  @Option(
+      names = "--max-rate",
+      paramLabel = "<REQUESTS/S>",
+      description =
+          "Requests per second above which secret requests are rejected with 429, 0 for no limit."
+              + " Default: ${DEFAULT-VALUE}")
+  private double maxRate = 0;
+
+  @Option(
+      names = "--seed",
+      description =
+          "Seed of the injected faults. A request's latency, error and random throttling follow"
+              + " from the seed, its path and its attempt at that path, so runs with the same seed"
+              + " inject the same faults. Default: ${DEFAULT-VALUE}")
+  private long seed = 0;
+
+  @Override
+  public Integer call() throws Exception {
+    if (errorRate < 0 || errorRate > 1 || throttleRate < 0 || throttleRate > 1 || maxRate < 0) {
+      throw new ParameterException(
+          spec.commandLine(),
+          "--error-rate and --throttle-rate must be between 0 and 1, --max-rate not negative");
+    }
+    final String token = tokenFile == null ? null : Files.readString(tokenFile).trim();
+    final MockVaultServer server =
+        new MockVaultServer(
+            new InetSocketAddress(InetAddress.getByName(host), port),
+            token,
+            new MockVaultServer.Behaviour(latency, errorRate, throttleRate, maxRate, seed));
+    final CountDownLatch stopped = new CountDownLatch(1);
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  server.logSummary();
+                  server.close();
+                  stopped.countDown();
+                }));
+    server.start();
+    LOG.info("Press Ctrl+C to stop");
+    stopped.await();
+    return 0;
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.nio.file.Path;
+
+/** Layout of the generated files on disk. */
+public enum OutputFormat {
+  /** One file per config, keystore and password file in the output directory. */
+  DIR("dir", ""),
+  /** Single uncompressed tar archive. */
+  TAR("tar", ".tar"),
+  /** Single gzip compressed tar archive. */
+  TAR_GZ("tar.gz", ".tar.gz"),
+  /** Single zip archive with deflated entries. */
+  ZIP("zip", ".zip");
+
+  private final String label;
+  private final String extension;
+
+  OutputFormat(final String label, final String extension) {
+    this.label = label;
+    this.extension = extension;
+  }
+
+  public boolean isArchive() {
+    return this != DIR;
+  }
+
+  /** Archive file written next to the output directory, e.g. {@code ./keys.tar.gz}. */
+  public Path archivePath(final Path outputDir) {
+    final Path dir = outputDir.toAbsolutePath().normalize();
+    return dir.resolveSibling(dir.getFileName() + extension);
+  }
+
+  @Override
+  public String toString() {
+    return label;
+  }
+
+  public static class Converter extends LabelledEnumConverter<OutputFormat> {
+    public Converter() {
+      super(values());
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+/** Options controlling how generated files are written. */
+public class OutputOptions {
+  @Spec(Spec.Target.MIXEE)
+  CommandSpec spec;
+
+  @Option(
+      names = "--io-threads",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description = "Number of threads writing output files. Default: ${DEFAULT-VALUE}")
+  int ioThreads = OutputWriter.DEFAULT_IO_THREADS;
+
+  @Option(
+      names = "--shard-dirs",
+      paramLabel = "<DEPTH>",
+      description =
+          "Spread generated files over this many levels (at most 4) of two character prefix"
+              + " subdirectories (e.g. ab/cd/abcd...yaml for 2), 0 writes all files in the output"
+              + " directory. Default: ${DEFAULT-VALUE}")
+  int shardDepth = 0;
+
+  @Option(
+      names = "--output-format",
+      converter = OutputFormat.Converter.class,
+      paramLabel = "<FORMAT>",
+      description =
+          "Write files to the output directory (dir) or stream them into a single archive next to"
+              + " it, e.g. ./keys.tar.gz, with the same layout. Valid values: dir, tar, tar.gz,"
+              + " zip. Default: ${DEFAULT-VALUE}")
+  OutputFormat outputFormat = OutputFormat.DIR;
+
+  @Option(
+      names = "--bundle-size",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description =
+          "Number of signer configurations written into each multi-document YAML file."
+              + " Default: ${DEFAULT-VALUE}")
+  int bundleSize = 1;
+
+  @Option(
+      names = "--executor",
+      converter = ExecutorMode.Converter.class,
+      paramLabel = "<MODE>",
+      description =
+          "Threads running I/O bound work (file writes, vault requests): platform thread pools"
+              + " or a virtual thread per task. Key generation and KDF always run on platform"
+              + " threads. Valid values: platform, virtual. Default: ${DEFAULT-VALUE}")
+  ExecutorMode executorMode = ExecutorMode.PLATFORM;
+
+  @Option(
+      names = "--file-names",
+      converter = FileNaming.Converter.class,
+      paramLabel = "<NAMING>",
+      description =
+          "Name keystores and configuration files randomly or by public key, bundles are named"
+              + " after their first key. Valid values: random, pubkey. Default: ${DEFAULT-VALUE}")
+  FileNaming fileNaming = FileNaming.RANDOM;
+
+  @Option(
+      names = "--top-up",
+      description =
+          "Index the keys already in the output directory and only generate the keys missing to"
+              + " reach --count, skipping keys that are already present. Default: ${DEFAULT-VALUE}")
+  boolean topUp = false;
+
+  public ExecutorMode getExecutorMode() {
+    return executorMode;
+  }
+
+  public OutputFormat getOutputFormat() {
+    return outputFormat;
+  }
+
+  public int getBundleSize() {
+    return bundleSize;
+  }
+
+  public FileNaming getFileNaming() {
+    return fileNaming;
+  }
+
+  public boolean isTopUp() {
+    return topUp;
+  }
+
+  /** Keys already in the output directory with --top-up, otherwise an empty index. */
+  public ExistingKeyIndex indexExistingKeys(final Path outputDir) {
+    if (!topUp) {
+      return ExistingKeyIndex.empty();
+    }
+    if (outputFormat.isArchive()) {
+      // archives are rewritten from scratch, so there is nothing to top up
+      throw new ParameterException(spec.commandLine(), "--top-up requires --output-format=dir");
+    }
+    return ExistingKeyIndex.scan(outputDir);
+  }
+
+  public OutputWriter createOutputWriter(final Path outputDir) {
+    if (shardDepth < 0 || shardDepth > OutputWriter.MAX_SHARD_DEPTH) {
+      throw new ParameterException(
+          spec.commandLine(), "--shard-dirs must be between 0 and " + OutputWriter.MAX_SHARD_DEPTH);
+    }
+    try {
+      final OutputTarget target =
+          outputFormat.isArchive()
+              ? new ArchiveOutputTarget(outputFormat.archivePath(outputDir), outputFormat)
+              : new DirectoryOutputTarget(outputDir);
+      return new OutputWriter(target, ioThreads, shardDepth, executorMode);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** Destination of the files written by an {@link OutputWriter}. */
+public interface OutputTarget extends Closeable {
+
+  /** Store file at the given path relative to the output root. */
+  void write(Path relativePath, byte[] content) throws IOException;
+
+  /** Whether {@link #write} may be called by several I/O threads at once. */
+  boolean isConcurrent();
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Output stage that writes generated files on dedicated I/O threads fed through a bounded queue,
+ * so that key generation and encryption threads don't stall on file creation. Files can
+ * optionally be spread over prefix subdirectories ({@code ab/cd/abcdef.yaml} for depth 2) to keep
+ * directory sizes small when generating hundreds of thousands of files. Files end up either in a
+ * directory or in a single archive, depending on the {@link OutputTarget}.
+ *
+ * <p>With {@link ExecutorMode#VIRTUAL} each file of a concurrent target is written on its own
+ * virtual thread, with the number of files in flight bounded like the queue.
+ */
+public class OutputWriter implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(OutputWriter.class);
+  public static final int DEFAULT_IO_THREADS = 4;
+  /** Each level multiplies the number of directories by up to 256, 4 levels allow 2^32. */
+  public static final int MAX_SHARD_DEPTH = 4;
+  private static final int QUEUE_CAPACITY = 4096;
+  private static final int PREFIX_LENGTH = 2;
+  private static final PendingFile END_OF_STREAM = new PendingFile(null, null, null);
+  private static final Metrics.Stage METRICS = Metrics.stage("file-write");
+
+  private final OutputTarget target;
+  private final int shardDepth;
+  private final BlockingQueue<PendingFile> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final List<Thread> ioThreads = new ArrayList<>();
+  private final ExecutorService taskExecutor;
+  private final Semaphore taskPermits = new Semaphore(QUEUE_CAPACITY);
+  private final LongAdder filesWritten = new LongAdder();
+  private final LongAdder bytesWritten = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final long startNanos = System.nanoTime();
+  private boolean closed;
+
+  private record PendingFile(Path relativePath, byte[] content, Runnable onWritten) {}
+
+  public OutputWriter(final Path outputDir, final int ioThreads, final int shardDepth) {
+    this(new DirectoryOutputTarget(outputDir), ioThreads, shardDepth);
+  }
+
+  public OutputWriter(final OutputTarget target, final int ioThreads, final int shardDepth) {
+    this(target, ioThreads, shardDepth, ExecutorMode.PLATFORM);
+  }
+
+  /** Archives are written sequentially, so targets that aren't concurrent get one I/O thread. */
+  public OutputWriter(
+      final OutputTarget target,
+      final int ioThreads,
+      final int shardDepth,
+      final ExecutorMode executorMode) {
+    this.target = target;
+    this.shardDepth = shardDepth;
+    if (executorMode == ExecutorMode.VIRTUAL && target.isConcurrent()) {
+      taskExecutor =
+          Executors.newThreadPerTaskExecutor(executorMode.threadFactory("output-writer"));
+      return;
+    }
+    taskExecutor = null;
+    final ThreadFactory threadFactory = ExecutorMode.PLATFORM.threadFactory("output-writer");
+    final int threads = target.isConcurrent() ? ioThreads : 1;
+    for (int i = 0; i < threads; i++) {
+      final Thread thread = threadFactory.newThread(this::drain);
+      thread.start();
+      this.ioThreads.add(thread);
+    }
+  }
+
+  /** Path relative to the output directory where a generated file of this name is placed. */
+  public Path shardedPath(final String fileName) {
+    Path path = Path.of("");
+    for (int level = 0; level < shardDepth; level++) {
+      final int start = level * PREFIX_LENGTH;
+      if (fileName.length() < start + PREFIX_LENGTH + 1) {
+        break;
+      }
+      path = path.resolve(fileName.substring(start, start + PREFIX_LENGTH));
+    }
+    return path.resolve(fileName);
+  }
+
+  /** Queue file for writing, blocks while the queue is full. */
+  public void write(final Path relativePath, final byte[] content) {
+    write(relativePath, content, null);
+  }
+
+  /**
+   * Queue file for writing, blocks while the queue is full.
+   *
+   * @param onWritten if not null, run on the I/O thread once the file has been stored
+   */
+  public void write(final Path relativePath, final byte[] content, final Runnable onWritten) {
+    final PendingFile pendingFile = new PendingFile(relativePath, content, onWritten);
+    try {
+      if (taskExecutor == null) {
+        queue.put(pendingFile);
+        return;
+      }
+      taskPermits.acquire();
+      taskExecutor.execute(
+          () -> {
+            try {
+              store(pendingFile);
+            } finally {
+              taskPermits.release();
+            }
+          });
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while queueing " + relativePath, e);
+    }
+  }
+
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  private void drain() {
+    try {
+      PendingFile pendingFile;
+      while ((pendingFile = queue.take()) != END_OF_STREAM) {
+        store(pendingFile);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void store(final PendingFile pendingFile) {
+    final Path file = pendingFile.relativePath();
+    final long startNanos = System.nanoTime();
+    try {
+      target.write(file, pendingFile.content());
+      METRICS.recordSince(startNanos);
+      filesWritten.increment();
+      bytesWritten.add(pendingFile.content().length);
+    } catch (final IOException | UncheckedIOException e) {
+      METRICS.recordFailure();
+      failures.increment();
+      LOG.error("Error creating file {} in {}: {}", file, target, e.getMessage());
+      return;
+    }
+    if (pendingFile.onWritten() != null) {
+      try {
+        pendingFile.onWritten().run();
+      } catch (final RuntimeException e) {
+        LOG.error("Error processing written file {}: {}", file, e.getMessage());
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return target.toString();
+  }
+
+  /** Waits for all queued files to be written and reports file creation throughput. */
+  @Override
+  public void close() {
+    close(null, null);
+  }
+
+  /**
+   * Waits for all queued files to be written, then writes a last file, e.g. an index of the
+   * written files, before closing the target.
+   *
+   * @param lastFile relative path of the last file, null for none
+   * @param lastContent supplies the content of the last file once all other files are written
+   */
+  public synchronized void close(final Path lastFile, final Supplier<byte[]> lastContent) {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (taskExecutor != null) {
+      // waits for the running tasks
+      taskExecutor.close();
+    }
+    try {
+      for (int i = 0; i < ioThreads.size(); i++) {
+        queue.put(END_OF_STREAM);
+      }
+      for (final Thread thread : ioThreads) {
+        thread.join();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for output files", e);
+    }
+    if (lastFile != null) {
+      store(new PendingFile(lastFile, lastContent.get(), null));
+    }
+    try {
+      target.close();
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Error closing " + target, e);
+    }
+    final long elapsedMillis =
+        Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    LOG.info(
+        "Wrote {} files ({} KiB) to {} in {} ms: {} files/s{}",
+        filesWritten.sum(),
+        bytesWritten.sum() >> 10,
+        target,
+        elapsedMillis,
+        filesWritten.sum() * 1000 / elapsedMillis,
+        failures.sum() == 0 ? "" : ", " + failures.sum() + " failed");
+  }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.tuweni.bytes.Bytes48;
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+/**
+ * Sorted binary index from public key to the file holding the key, written next to the generated
+ * files so a key can be found with a binary search over the memory mapped manifest instead of
+ * reading every file.
+ *
+ * <p>Layout, big endian: a 16 byte header ({@code W3SM}, version, entry count, string table
+ * offset), fixed size 64 byte records sorted by public key (48 byte compressed public key, type,
+ * 3 reserved bytes, then string table offsets of the file, vault path and vault key name, {@code
+ * -1} if absent) and a string table of length prefixed UTF-8 strings.
+ */
+public class PubkeyManifest {
+  public static final Path FILE_NAME = Path.of("pubkeys.manifest");
+  private static final int MAGIC = 0x5733534d; // W3SM
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int RECORD_SIZE = 64;
+  private static final int PUBLIC_KEY_SIZE = 48;
+  private static final int NO_STRING = -1;
+
+  /** Kind of file an entry points at, labelled like Web3Signer's signer types. */
+  public enum Type {
+    RAW("file-raw"),
+    KEYSTORE("file-keystore"),
+    HASHICORP("hashicorp");
+
+    private final String label;
+
+    Type(final String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String toString() {
+      return label;
+    }
+  }
+
+  /**
+   * @param vaultPath path of the vault secret holding the key, null unless type is hashicorp
+   * @param keyName entry of the key in the vault secret, null unless type is hashicorp
+   */
+  public record Entry(
+      Bytes48 publicKey, Type type, String file, String vaultPath, String keyName) {}
+
+  private final Path manifestFile;
+  private final MappedByteBuffer buffer;
+  private final int count;
+  private final int stringTableOffset;
+
+  private PubkeyManifest(
+      final Path manifestFile,
+      final MappedByteBuffer buffer,
+      final int count,
+      final int stringTableOffset) {
+    this.manifestFile = manifestFile;
+    this.buffer = buffer;
+    this.count = count;
+    this.stringTableOffset = stringTableOffset;
+  }
+
+  /** Maps the manifest into memory, manifests are limited to the 2 GiB a buffer can map. */
+  public static PubkeyManifest open(final Path manifestFile) throws IOException {
+    try (final FileChannel channel = FileChannel.open(manifestFile, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Invalid manifest size " + channel.size() + " of " + manifestFile);
+      }
+      final MappedByteBuffer buffer =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        throw new IOException("Not a version " + VERSION + " pubkey manifest: " + manifestFile);
+      }
+      final int count = buffer.getInt(8);
+      final int stringTableOffset = buffer.getInt(12);
+      if (count < 0
+          || stringTableOffset != HEADER_SIZE + (long) count * RECORD_SIZE
+          || stringTableOffset > channel.size()) {
+        throw new IOException("Corrupt pubkey manifest " + manifestFile);
+      }
+      return new PubkeyManifest(manifestFile, buffer, count, stringTableOffset);
+    }
+  }
+
+  public int size() {
+    return count;
+  }
+
+  /** Binary search for the public key, {@code O(log n)} reads of the mapped records. */
+  public Optional<Entry> lookup(final Bytes48 publicKey) {
+    final byte[] key = publicKey.toArrayUnsafe();
+    final byte[] probe = new byte[PUBLIC_KEY_SIZE];
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      buffer.get(recordOffset(mid), probe);
+      final int comparison = Arrays.compareUnsigned(probe, key);
+      if (comparison < 0) {
+        low = mid + 1;
+      } else if (comparison > 0) {
+        high = mid - 1;
+      } else {
+        return Optional.of(entry(mid));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /** All entries in public key order. */
+  public List<Entry> entries() {
+    final List<Entry> entries = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      entries.add(entry(i));
+    }
+    return entries;
+  }
+
+  @Override
+  public String toString() {
+    return manifestFile.toString();
+  }
+
+  private static int recordOffset(final int index) {
+    return HEADER_SIZE + index * RECORD_SIZE;
+  }
+
+  private Entry entry(final int index) {
+    final int offset = recordOffset(index);
+    final byte[] publicKey = new byte[PUBLIC_KEY_SIZE];
+    buffer.get(offset, publicKey);
+    return new Entry(
+        Bytes48.wrap(publicKey),
+        Type.values()[buffer.get(offset + PUBLIC_KEY_SIZE)],
+        string(buffer.getInt(offset + 52)),
+        string(buffer.getInt(offset + 56)),
+        string(buffer.getInt(offset + 60)));
+  }
+
+  private String string(final int offset) {
+    if (offset == NO_STRING) {
+      return null;
+    }
+    final int position = stringTableOffset + offset;
+    final byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(position))];
+    buffer.get(position + Short.BYTES, bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Collects entries from any thread and serializes them sorted by public key.
+   *
+   * <p>Entries are kept as manifest records in a growable byte array rather than as objects, and
+   * their strings in a byte string table, so a run costs roughly the size of its manifest in heap
+   * instead of several objects per key. Strings are only deduplicated against recently added ones,
+   * which covers the file of a bundle and the secret of a batch as their keys are added together.
+   */
+  public static class Builder {
+    private static final int INITIAL_RECORDS = 1024;
+    private static final int RECENT_STRINGS = 256;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private byte[] records = new byte[INITIAL_RECORDS * RECORD_SIZE];
+    private int count;
+    private byte[] strings = new byte[INITIAL_RECORDS * 32];
+    private int stringsSize;
+    private final Map<String, Integer> recentStrings =
+        new LinkedHashMap<>(RECENT_STRINGS, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, Integer> eldest) {
+            return size() > RECENT_STRINGS;
+          }
+        };
+
+    public void add(final BLSPublicKey publicKey, final Type type, final Path file) {
+      add(publicKey, type, file, null, null);
+    }
+
+    public void add(
+        final BLSPublicKey publicKey,
+        final Type type,
+        final Path file,
+        final String vaultPath,
+        final String keyName) {
+      add(publicKey.toBytesCompressed(), type, file.toString(), vaultPath, keyName);
+    }
+
+    /** Adds the entries of an earlier manifest of the same output. */
+    public void addAll(final PubkeyManifest manifest) {
+      for (int i = 0; i < manifest.size(); i++) {
+        final Entry entry = manifest.entry(i);
+        add(entry.publicKey(), entry.type(), entry.file(), entry.vaultPath(), entry.keyName());
+      }
+    }
+
+    public synchronized int size() {
+      return count;
+    }
+
+    private synchronized void add(
+        final Bytes48 publicKey,
+        final Type type,
+        final String file,
+        final String vaultPath,
+        final String keyName) {
+      final int fileOffset = string(file);
+      final int vaultPathOffset = string(vaultPath);
+      final int keyNameOffset = string(keyName);
+      records = ensureCapacity(records, (count + 1L) * RECORD_SIZE);
+      final ByteBuffer record = ByteBuffer.wrap(records, count * RECORD_SIZE, RECORD_SIZE);
+      record.put(publicKey.toArrayUnsafe());
+      record.put((byte) type.ordinal());
+      record.put(new byte[3]);
+      record.putInt(fileOffset).putInt(vaultPathOffset).putInt(keyNameOffset);
+      count++;
+    }
+
+    /**
+     * Serializes the entries, keeping the first entry added for a public key. The string table is
+     * copied as is, so strings only referenced by dropped duplicates stay in the manifest.
+     */
+    public synchronized byte[] build() {
+      final int[] order = sortedByPublicKey();
+      int unique = 0;
+      for (int i = 0; i < order.length; i++) {
+        if (i == 0 || comparePublicKeys(order[i - 1], order[i]) != 0) {
+          order[unique++] = order[i];
+        }
+      }
+
+      final long stringTableOffset = HEADER_SIZE + (long) unique * RECORD_SIZE;
+      if (stringTableOffset + stringsSize > MAX_ARRAY_SIZE) {
+        throw new IllegalStateException("Pubkey manifest exceeds 2 GiB");
+      }
+      final ByteBuffer manifest = ByteBuffer.allocate((int) stringTableOffset + stringsSize);
+      manifest.putInt(MAGIC).putInt(VERSION).putInt(unique).putInt((int) stringTableOffset);
+      for (int i = 0; i < unique; i++) {
+        manifest.put(records, order[i] * RECORD_SIZE, RECORD_SIZE);
+      }
+      manifest.put(strings, 0, stringsSize);
+      return manifest.array();
+    }
+
+    private int string(final String value) {
+      if (value == null) {
+        return NO_STRING;
+      }
+      final Integer recentOffset = recentStrings.get(value);
+      if (recentOffset != null) {
+        return recentOffset;
+      }
+      final byte[] bytes = value.getBytes(UTF_8);
+      if (bytes.length > 0xffff) {
+        throw new IllegalArgumentException("Manifest string too long: " + value);
+      }
+      final int offset = stringsSize;
+      strings = ensureCapacity(strings, (long) offset + Short.BYTES + bytes.length);
+      ByteBuffer.wrap(strings, offset, Short.BYTES).putShort((short) bytes.length);
+      System.arraycopy(bytes, 0, strings, offset + Short.BYTES, bytes.length);
+      stringsSize += Short.BYTES + bytes.length;
+      recentStrings.put(value, offset);
+      return offset;
+    }
+
+    /** Indices of the records in public key order, stable so the first added entry comes first. */
+    private int[] sortedByPublicKey() {
+      int[] order = new int[count];
+      for (int i = 0; i < count; i++) {
+        order[i] = i;
+      }
+      // bottom up merge sort, records are compared in place instead of boxing their indices
+      int[] merged = new int[count];
+      for (int width = 1; width < count; width *= 2) {
+        for (int low = 0; low < count; low += 2 * width) {
+          final int middle = Math.min(low + width, count);
+          final int high = Math.min(low + 2 * width, count);
+          int left = low;
+          int right = middle;
+          for (int i = low; i < high; i++) {
+            if (left < middle
+                && (right >= high || comparePublicKeys(order[left], order[right]) <= 0)) {
+              merged[i] = order[left++];
+            } else {
+              merged[i] = order[right++];
+            }
+          }
+        }
+        final int[] swap = order;
+        order = merged;
+        merged = swap;
+      }
+      return order;
+    }
+
+    private int comparePublicKeys(final int a, final int b) {
+      final int aOffset = a * RECORD_SIZE;
+      final int bOffset = b * RECORD_SIZE;
+      return Arrays.compareUnsigned(
+          records,
+          aOffset,
+          aOffset + PUBLIC_KEY_SIZE,
+          records,
+          bOffset,
+          bOffset + PUBLIC_KEY_SIZE);
+    }
+
+    private static byte[] ensureCapacity(final byte[] array, final long required) {
+      if (required <= array.length) {
+        return array;
+      }
+      if (required > MAX_ARRAY_SIZE) {
+        throw new IllegalStateException("Pubkey manifest exceeds 2 GiB");
+      }
+      return Arrays.copyOf(
+          array, (int) Math.min(MAX_ARRAY_SIZE, Math.max(required, array.length * 2L)));
+    }
+  }
+}
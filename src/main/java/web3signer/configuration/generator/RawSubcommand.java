@@ -13,8 +13,9 @@
 package web3signer.configuration.generator;
 
 import java.nio.file.Path;
-import java.util.Set;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine;
@@ -36,13 +37,59 @@ public class RawSubcommand implements Callable<Integer> {
       description = "Number of keys to generate and insert. Default: ${DEFAULT-VALUE}")
   int count = 50;
 
+  @CommandLine.Mixin KeyGenerationOptions keyGenerationOptions;
+
+  @CommandLine.Mixin OutputOptions outputOptions;
+
+  @CommandLine.Mixin MetricsOptions metricsOptions;
+
+  /** {@link ImportSubcommand} when keys are imported rather than generated. */
+  @CommandLine.ParentCommand Object parent;
+
   @Override
   public Integer call() {
-    LOG.info("Generating {} BLS Keys", count);
-    final Set<BLSKeyPair> blsKeyPairs = new BLSKeyGenerator().generate(count);
-
-    LOG.info("Creating Web3Signer configuration files in {}", outputDir);
-    new Web3SignerYamlConfiguration(outputDir).createRawYamlConfigurationFiles(blsKeyPairs);
+    final ImportSubcommand importSubcommand =
+        parent instanceof ImportSubcommand importParent ? importParent : null;
+    final IndexRange indexRange = keyGenerationOptions.indexRange(count);
+    final KeySource keySource = keyGenerationOptions.createKeySource();
+    final ExistingKeyIndex existingKeys = outputOptions.indexExistingKeys(outputDir);
+    final Optional<IndexRange> range =
+        existingKeys.rangeToGenerate(indexRange, keySource.isDeterministic());
+    if (importSubcommand != null) {
+      LOG.info("Creating Web3Signer configuration files of imported keys in {}", outputDir);
+    } else if (range.isEmpty()) {
+      LOG.info("{} already holds {} keys, nothing to top up", outputDir, existingKeys.size());
+      return 0;
+    } else {
+      LOG.info(
+          "Generating {} BLS Keys and Web3Signer configuration files in {}",
+          range.get().size(),
+          outputDir);
+    }
+    final Web3SignerYamlConfiguration configuration =
+        new Web3SignerYamlConfiguration(
+            outputDir,
+            outputOptions.createOutputWriter(outputDir),
+            outputOptions.getBundleSize(),
+            outputOptions.getFileNaming());
+    try (final MetricsReporter metricsReporter = metricsOptions.startReporter();
+        configuration) {
+      if (outputOptions.isTopUp()) {
+        configuration.keepExistingManifest();
+      }
+      final Predicate<BLSKeyPair> sink =
+          blsKeyPair ->
+              !existingKeys.contains(blsKeyPair)
+                  && configuration.createRawYamlConfigurationFile(blsKeyPair);
+      if (importSubcommand != null) {
+        importSubcommand.importKeys(
+            Runtime.getRuntime().availableProcessors(), outputOptions.getExecutorMode(), sink);
+      } else {
+        new KeyPipeline(outputOptions.getExecutorMode())
+            .run(range.get().start(), range.get().end(), keySource::keyPair, sink);
+      }
+    }
+    LOG.info("Created {} configuration files in {}", configuration.getWrittenCount(), outputDir);
     return 0;
   }
 }
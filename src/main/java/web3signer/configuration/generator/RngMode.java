@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+/** How random bytes for keys, salts, IVs and file names are drawn. */
+public enum RngMode {
+  /** Single SecureRandom shared by all threads. */
+  SHARED("shared"),
+  /** One DRBG per thread, all seeded from a common master seed. */
+  PER_THREAD("per-thread");
+
+  private final String label;
+
+  RngMode(final String label) {
+    this.label = label;
+  }
+
+  @Override
+  public String toString() {
+    return label;
+  }
+
+  public static class Converter extends LabelledEnumConverter<RngMode> {
+    public Converter() {
+      super(values());
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.nio.ByteBuffer;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the SecureRandom to use on the calling thread. In {@link RngMode#PER_THREAD} mode each
+ * thread gets its own DRBG instance, so that parallel workers don't contend on a single
+ * synchronized generator.
+ *
+ * <p>Each DRBG seeds itself from the system entropy source. The random master seed and the
+ * per-thread counter are only its personalization string, which keeps instances distinct even if
+ * they were seeded alike; it doesn't make their output reproducible.
+ */
+public class SecureRandomPool {
+  private static final int MASTER_SEED_LENGTH = 32;
+  private static final int DRBG_STRENGTH = 256;
+
+  private final RngMode rngMode;
+  private final SecureRandom sharedSecureRandom;
+  private final ThreadLocal<SecureRandom> threadSecureRandom;
+
+  public SecureRandomPool(final RngMode rngMode) {
+    this.rngMode = rngMode;
+    this.sharedSecureRandom = new SecureRandom();
+    final byte[] masterSeed = new byte[MASTER_SEED_LENGTH];
+    sharedSecureRandom.nextBytes(masterSeed);
+    final AtomicLong threadCounter = new AtomicLong(0);
+    this.threadSecureRandom =
+        ThreadLocal.withInitial(() -> newDrbg(masterSeed, threadCounter.getAndIncrement()));
+  }
+
+  public RngMode getRngMode() {
+    return rngMode;
+  }
+
+  public SecureRandom get() {
+    return rngMode == RngMode.PER_THREAD ? threadSecureRandom.get() : sharedSecureRandom;
+  }
+
+  /** DRBG seeded from the entropy source, personalised with the master seed and thread index. */
+  private static SecureRandom newDrbg(final byte[] masterSeed, final long threadIndex) {
+    final byte[] personalizationString =
+        ByteBuffer.allocate(masterSeed.length + Long.BYTES)
+            .put(masterSeed)
+            .putLong(threadIndex)
+            .array();
+    try {
+      return SecureRandom.getInstance(
+          "DRBG",
+          DrbgParameters.instantiation(
+              DRBG_STRENGTH, DrbgParameters.Capability.RESEED_ONLY, personalizationString));
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("DRBG SecureRandom is not available", e);
+    }
+  }
+}
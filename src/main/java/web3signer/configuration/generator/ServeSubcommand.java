@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+@Command(
+    name = "serve",
+    description =
+        "Serve raw, keystore and hashicorp configuration generation over a local HTTP API, with"
+            + " keys taken from a pool of pre-generated random keys. Output and KDF options apply"
+            + " to every request.")
+public class ServeSubcommand implements Callable<Integer> {
+  private static final Logger LOG = LoggerFactory.getLogger(ServeSubcommand.class);
+
+  @Spec CommandSpec spec;
+
+  @Option(
+      names = "--host",
+      description =
+          "Address to listen on, a loopback address unless --allow-remote is given."
+              + " Default: ${DEFAULT-VALUE}")
+  private String host = "127.0.0.1";
+
+  @Option(
+      names = "--allow-remote",
+      description =
+          "Allow --host to be a non-loopback address. The API has no authentication, anyone"
+              + " reaching the port can write keys under --output-root. Default: ${DEFAULT-VALUE}")
+  private boolean allowRemote = false;
+
+  @Option(
+      names = "--output-root",
+      required = true,
+      paramLabel = "<DIR>",
+      description =
+          "Directory the outputs of all requests are written to. A request's output is resolved"
+              + " against it and rejected if it points outside of it.")
+  private Path outputRoot;
+
+  @Option(
+      names = "--port",
+      description = "Port to listen on, 0 picks a free port. Default: ${DEFAULT-VALUE}")
+  private int port = 9100;
+
+  @Option(
+      names = "--pool-high-watermark",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description = "Number of keys the pool is refilled to. Default: ${DEFAULT-VALUE}")
+  private int poolHighWatermark = 10_000;
+
+  @Option(
+      names = "--pool-low-watermark",
+      paramLabel = "<NUMBER>",
+      description =
+          "Number of pooled keys at which the pool is refilled, below --pool-high-watermark."
+              + " Default: ${DEFAULT-VALUE}")
+  private int poolLowWatermark = 2_500;
+
+  @Option(
+      names = "--pool-threads",
+      converter = PositiveIntegerConverter.class,
+      paramLabel = "<NUMBER>",
+      description = "Number of threads refilling the pool. Default: half the number of processors")
+  private int poolThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+  @Mixin OutputOptions outputOptions;
+
+  @Mixin KdfOptions kdfOptions;
+
+  @Override
+  public Integer call() throws Exception {
+    if (poolLowWatermark < 0 || poolLowWatermark >= poolHighWatermark) {
+      throw new ParameterException(
+          spec.commandLine(),
+          "--pool-low-watermark must not be negative and below --pool-high-watermark");
+    }
+    final InetAddress address = InetAddress.getByName(host);
+    if (!address.isLoopbackAddress() && !allowRemote) {
+      throw new ParameterException(
+          spec.commandLine(),
+          "--host "
+              + host
+              + " isn't a loopback address and the API has no authentication,"
+              + " pass --allow-remote to listen on it anyway");
+    }
+    final KeyPool keyPool = new KeyPool(poolLowWatermark, poolHighWatermark, poolThreads);
+    final KeyServer server =
+        new KeyServer(
+            new InetSocketAddress(address, port), keyPool, outputOptions, kdfOptions, outputRoot);
+    final CountDownLatch stopped = new CountDownLatch(1);
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  server.logSummary();
+                  server.close();
+                  keyPool.close();
+                  stopped.countDown();
+                }));
+    server.start();
+    LOG.info(
+        "Filling the key pool to {} keys on {} threads, press Ctrl+C to stop",
+        poolHighWatermark,
+        poolThreads);
+    stopped.await();
+    return 0;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import picocli.CommandLine;
+import picocli.CommandLine.TypeConversionException;
+
+/** Shard {@code index} (0-based) of {@code total} shards. */
+public record Shard(int index, int total) {
+  public Shard {
+    if (total <= 0 || index < 0 || index >= total) {
+      throw new IllegalArgumentException(
+          "Invalid shard " + index + "/" + total + ", expecting 0 <= index < total");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return index + "/" + total;
+  }
+
+  /** Converts {@code i/N}. */
+  public static class Converter implements CommandLine.ITypeConverter<Shard> {
+    @Override
+    public Shard convert(final String value) throws TypeConversionException {
+      final String[] parts = value.split("/", -1);
+      if (parts.length != 2) {
+        throw new TypeConversionException(
+            "Invalid format: expecting <index>/<total> but was '" + value + "'");
+      }
+      try {
+        return new Shard(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+      } catch (final NumberFormatException e) {
+        throw new TypeConversionException(
+            "Invalid format: expecting numeric index and total but was '" + value + "'");
+      } catch (final IllegalArgumentException e) {
+        throw new TypeConversionException(e.getMessage());
+      }
+    }
+  }
+}
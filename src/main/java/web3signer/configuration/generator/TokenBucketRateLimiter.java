@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket limiting the rate of requests. Tokens refill continuously up to a burst of one
+ * second worth of requests. Callers reserve a token up front and wait out the returned delay, so
+ * the bucket can go into debt instead of callers polling it.
+ */
+public class TokenBucketRateLimiter {
+  private final double permitsPerSecond;
+  private final double burst;
+  private final LongSupplier nanoClock;
+  private double tokens;
+  private long lastRefillNanos;
+
+  /**
+   * @param permitsPerSecond sustained rate, 0 or less disables limiting
+   */
+  public TokenBucketRateLimiter(final double permitsPerSecond) {
+    this(permitsPerSecond, System::nanoTime);
+  }
+
+  TokenBucketRateLimiter(final double permitsPerSecond, final LongSupplier nanoClock) {
+    this.permitsPerSecond = permitsPerSecond;
+    this.burst = Math.max(1, permitsPerSecond);
+    this.nanoClock = nanoClock;
+    this.tokens = burst;
+    this.lastRefillNanos = nanoClock.getAsLong();
+  }
+
+  public boolean isUnlimited() {
+    return permitsPerSecond <= 0;
+  }
+
+  /** Takes a token and returns how many nanoseconds the caller has to wait before using it. */
+  public synchronized long reserve() {
+    if (isUnlimited()) {
+      return 0;
+    }
+    refill();
+    tokens -= 1;
+    return tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * 1e9);
+  }
+
+  /** Takes a token if one is available right away. */
+  public synchronized boolean tryAcquire() {
+    if (isUnlimited()) {
+      return true;
+    }
+    refill();
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+
+  private void refill() {
+    final long now = nanoClock.getAsLong();
+    tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / 1e9);
+    lastRefillNanos = now;
+  }
+
+  /** Takes a token, sleeping until it is available. */
+  public void acquire() throws InterruptedException {
+    final long waitNanos = reserve();
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import picocli.CommandLine;
+import picocli.CommandLine.TypeConversionException;
+
+/**
+ * Share of vault secrets read back after a load, {@code 100} for all of them. Secrets are selected
+ * by a hash of their name, so all keys of a secret are verified together with a single read.
+ */
+public record VerificationSample(double percent) {
+  public static final VerificationSample ALL = new VerificationSample(100);
+
+  public VerificationSample {
+    if (!(percent > 0 && percent <= 100)) {
+      throw new IllegalArgumentException(
+          "Invalid sample percentage " + percent + ", expecting 0 < percent <= 100");
+    }
+  }
+
+  public boolean includes(final String secretName) {
+    return percent >= 100 || Math.floorMod(secretName.hashCode(), 10_000) < percent * 100;
+  }
+
+  @Override
+  public String toString() {
+    return percent >= 100 ? "all" : "sample:" + percent;
+  }
+
+  /** Converts {@code all} or {@code sample:<pct>}. */
+  public static class Converter implements CommandLine.ITypeConverter<VerificationSample> {
+    @Override
+    public VerificationSample convert(final String value) throws TypeConversionException {
+      if ("all".equals(value)) {
+        return ALL;
+      }
+      if (!value.startsWith("sample:")) {
+        throw new TypeConversionException(
+            "Invalid format: expecting all or sample:<pct> but was '" + value + "'");
+      }
+      try {
+        return new VerificationSample(Double.parseDouble(value.substring("sample:".length())));
+      } catch (final NumberFormatException e) {
+        throw new TypeConversionException(
+            "Invalid format: expecting numeric percentage but was '" + value + "'");
+      } catch (final IllegalArgumentException e) {
+        throw new TypeConversionException(e.getMessage());
+      }
+    }
+  }
+}
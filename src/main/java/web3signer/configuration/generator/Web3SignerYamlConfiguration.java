@@ -12,219 +12,332 @@
  */
 package web3signer.configuration.generator;
 
-import static tech.pegasys.teku.bls.keystore.model.Pbkdf2PseudoRandomFunction.HMAC_SHA256;
-
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import org.apache.tuweni.bytes.Bytes;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.Yaml;
 import tech.pegasys.teku.bls.BLSKeyPair;
-import tech.pegasys.teku.bls.BLSPublicKey;
-import tech.pegasys.teku.bls.keystore.KeyStore;
-import tech.pegasys.teku.bls.keystore.KeyStoreLoader;
-import tech.pegasys.teku.bls.keystore.model.Cipher;
-import tech.pegasys.teku.bls.keystore.model.CipherFunction;
-import tech.pegasys.teku.bls.keystore.model.KdfParam;
-import tech.pegasys.teku.bls.keystore.model.KeyStoreData;
-import tech.pegasys.teku.bls.keystore.model.Pbkdf2Param;
-
-public class Web3SignerYamlConfiguration {
+
+public class Web3SignerYamlConfiguration implements AutoCloseable {
   private static final Logger LOG = LoggerFactory.getLogger(Web3SignerYamlConfiguration.class);
+  public static final String KEYSTORE_PASSWORD = "password";
+  private static final Path PASSWORD_FILE = Path.of("password.txt");
   private final Path outputDir;
-  private static final DumperOptions DUMPER_OPTIONS = new DumperOptions();
+  private final OutputWriter outputWriter;
+  private final YamlBundler bundler;
+  private final FileNaming fileNaming;
+  private final PubkeyManifest.Builder manifest = PubkeyManifest.builder();
+  private final LongAdder keysWritten = new LongAdder();
+  private final Map<Path, YamlTemplate> keystoreTemplates = new ConcurrentHashMap<>();
+  private final Map<HashicorpTemplateKey, YamlTemplate> hashicorpTemplates =
+      new ConcurrentHashMap<>();
 
-  static {
-    DUMPER_OPTIONS.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+  public Web3SignerYamlConfiguration(final Path outputDir) {
+    this(outputDir, new OutputWriter(outputDir, OutputWriter.DEFAULT_IO_THREADS, 0));
   }
 
-  public Web3SignerYamlConfiguration(final Path outputDir) {
+  public Web3SignerYamlConfiguration(final Path outputDir, final OutputWriter outputWriter) {
+    this(outputDir, outputWriter, 1);
+  }
+
+  public Web3SignerYamlConfiguration(
+      final Path outputDir, final OutputWriter outputWriter, final int bundleSize) {
+    this(outputDir, outputWriter, bundleSize, FileNaming.RANDOM);
+  }
+
+  /**
+   * @param bundleSize number of signer configurations per multi-document YAML file, 1 writes a
+   *     plain single document file per key
+   */
+  public Web3SignerYamlConfiguration(
+      final Path outputDir,
+      final OutputWriter outputWriter,
+      final int bundleSize,
+      final FileNaming fileNaming) {
     this.outputDir = outputDir;
-    LOG.debug("Creating output directory: {}", outputDir);
+    this.outputWriter = outputWriter;
+    this.bundler = bundleSize > 1 ? new YamlBundler(bundleSize, this::writeConfigFile) : null;
+    this.fileNaming = fileNaming;
+  }
+
+  /**
+   * Carries the entries of the manifest already in the output directory over into the manifest
+   * written by this run, for runs adding keys to an existing output.
+   */
+  public void keepExistingManifest() {
+    final Path existingManifest = outputDir.resolve(PubkeyManifest.FILE_NAME);
+    if (!Files.exists(existingManifest)) {
+      return;
+    }
     try {
-      Files.createDirectories(outputDir);
+      final PubkeyManifest previous = PubkeyManifest.open(existingManifest);
+      manifest.addAll(previous);
+      LOG.info("Keeping {} entries of {}", previous.size(), previous);
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
   }
 
   public void createHashicorpYamlConfigurationFiles(
-      final List<BLSPublicKey> blsPublicKeys,
+      final Collection<VaultKeyLocation> vaultKeyLocations,
       final URI hashicorpApiEndpoint,
       final String token,
       final Path tlsKnownHosts,
-      final String overrideVaultHost) {
-    final AtomicInteger count = new AtomicInteger(0);
-    blsPublicKeys.parallelStream()
+      final String overrideVaultHost,
+      final BiConsumer<VaultKeyLocation, Path> onWritten) {
+    vaultKeyLocations.parallelStream()
         .forEach(
-            blsPublicKey -> {
-              System.out.printf("\rCreating configuration file: %d ...", count.incrementAndGet());
-              final String publicKey = blsPublicKey.toBytesCompressed().toUnprefixedHexString();
-              final URI secretsEndpoint =
-                  URI.create(hashicorpApiEndpoint.toString() + "/data/" + publicKey).normalize();
-              final String content =
-                  getHashicorpYamlConfiguration(
-                      secretsEndpoint, token, tlsKnownHosts, overrideVaultHost);
-              var outputFileName = BLSKeyGenerator.secureRandomString();
-              var outputFile = outputDir.resolve(outputFileName + ".yaml");
-              try {
-                Files.writeString(outputFile, content);
-              } catch (IOException e) {
-                LOG.error("Error creating configuration file {}: {}", outputFile, e.getMessage());
-              }
-            });
-    System.out.println("\nConfiguration files created.");
-  }
-
-  public void createRawYamlConfigurationFiles(final Set<BLSKeyPair> blsKeyPairs) {
-    // create configuration file
-    blsKeyPairs.forEach(
-        blsKeyPair -> {
-          final Map<String, String> map =
-              Map.of(
-                  "type",
-                  "file-raw",
-                  "privateKey",
-                  blsKeyPair.getSecretKey().toBytes().toHexString());
-          final String content = new Yaml(DUMPER_OPTIONS).dump(map);
-          var outputFileName = BLSKeyGenerator.secureRandomString();
-          var outputFile = outputDir.resolve(outputFileName + ".yaml");
-          try {
-            Files.writeString(outputFile, content);
-          } catch (IOException e) {
-            LOG.error("Error creating configuration file {}: {}", outputFile, e.getMessage());
-          }
+            location ->
+                createHashicorpYamlConfigurationFile(
+                    location,
+                    hashicorpApiEndpoint,
+                    token,
+                    tlsKnownHosts,
+                    overrideVaultHost,
+                    configFile -> onWritten.accept(location, configFile)));
+    LOG.info("Queued {} configuration files in {}", vaultKeyLocations.size(), outputWriter);
+  }
+
+  /**
+   * Create the configuration file of a key stored in vault.
+   *
+   * @param onWritten called with the path of the file holding the configuration once it has been
+   *     written
+   */
+  public void createHashicorpYamlConfigurationFile(
+      final VaultKeyLocation location,
+      final URI hashicorpApiEndpoint,
+      final String token,
+      final Path tlsKnownHosts,
+      final String overrideVaultHost,
+      final Consumer<Path> onWritten) {
+    final URI secretsEndpoint = secretsEndpoint(hashicorpApiEndpoint, location);
+    addConfig(
+        fileNaming.fileName(location.publicKey()),
+        getHashicorpYamlConfiguration(
+            secretsEndpoint, location.keyName(), token, tlsKnownHosts, overrideVaultHost),
+        configFile -> {
+          addHashicorpManifestEntry(location, secretsEndpoint, configFile);
+          keysWritten.increment();
+          onWritten.accept(configFile);
         });
   }
 
-  public void createKeystoreConfigurationFiles(
-      final Set<BLSKeyPair> blsKeyPairs,
+  /**
+   * Adds the configuration file of a key stored in vault, written by an earlier run, to the
+   * manifest of this run.
+   */
+  public void addToManifest(
+      final VaultKeyLocation location, final URI hashicorpApiEndpoint, final Path configFile) {
+    addHashicorpManifestEntry(
+        location, secretsEndpoint(hashicorpApiEndpoint, location), configFile);
+  }
+
+  private void addHashicorpManifestEntry(
+      final VaultKeyLocation location, final URI secretsEndpoint, final Path configFile) {
+    manifest.add(
+        location.publicKey(),
+        PubkeyManifest.Type.HASHICORP,
+        configFile,
+        secretsEndpoint.getPath(),
+        location.keyName());
+  }
+
+  private static URI secretsEndpoint(
+      final URI hashicorpApiEndpoint, final VaultKeyLocation location) {
+    return URI.create(hashicorpApiEndpoint.toString() + "/data/" + location.secretName())
+        .normalize();
+  }
+
+  /**
+   * Queues the configuration file of a key, see {@link #getWrittenCount()} for the keys written.
+   *
+   * @return true once the file is queued
+   */
+  public boolean createRawYamlConfigurationFile(final BLSKeyPair blsKeyPair) {
+    addConfig(
+        fileNaming.fileName(blsKeyPair.getPublicKey()),
+        getRawYamlConfiguration(blsKeyPair),
+        configFile -> {
+          manifest.add(blsKeyPair.getPublicKey(), PubkeyManifest.Type.RAW, configFile);
+          keysWritten.increment();
+        });
+    return true;
+  }
+
+  public void createKeystorePasswordFile() {
+    outputWriter.write(PASSWORD_FILE, KEYSTORE_PASSWORD.getBytes(StandardCharsets.UTF_8));
+    LOG.info("Created password file {} in {}", PASSWORD_FILE, outputWriter);
+  }
+
+  /**
+   * Create encrypted keystore and (optionally) its configuration file. The password file is
+   * expected to have been created by {@link #createKeystorePasswordFile()}. The files are queued,
+   * see {@link #getWrittenCount()} for the keys written.
+   *
+   * @return true if the keystore was encrypted
+   */
+  public boolean createKeystoreConfigurationFile(
+      final BLSKeyPair blsKeyPair,
       final boolean generateConfig,
       final Path keystoreDirInConfig,
-      final int kdfCounter) {
-    // create password file first
-    try {
-      var passwordFile = outputDir.resolve("password.txt");
-      Files.writeString(passwordFile, "password");
-      LOG.info("Created password file in {}", passwordFile);
-    } catch (IOException e) {
-      throw new UncheckedIOException(e);
-    }
+      final KeystoreEncryptor keystoreEncryptor) {
+    var outputFileName = fileNaming.fileName(blsKeyPair.getPublicKey());
+    var keystoreFile = outputWriter.shardedPath(outputFileName + ".json");
+    // the key counts as written once its keystore and configuration file both are
+    final AtomicInteger pendingFiles = new AtomicInteger(generateConfig ? 2 : 1);
+    final Runnable fileWritten =
+        () -> {
+          if (pendingFiles.decrementAndGet() == 0) {
+            keysWritten.increment();
+          }
+        };
+
+    // generate keystore file
+    outputWriter.write(
+        keystoreFile,
+        keystoreEncryptor.encrypt(
+            blsKeyPair.getSecretKey().toBytes(), blsKeyPair.getPublicKey().toBytesCompressed()),
+        () -> {
+          manifest.add(blsKeyPair.getPublicKey(), PubkeyManifest.Type.KEYSTORE, keystoreFile);
+          fileWritten.run();
+        });
 
     if (!generateConfig) {
-      LOG.info("Skipping configuration file generation");
+      return true;
     }
 
-    // create encrypted keystore files and configuration files
-    final AtomicInteger count = new AtomicInteger(0);
-    blsKeyPairs.parallelStream()
-        .forEach(
-            blsKeyPair -> {
-              var outputFileName = BLSKeyGenerator.secureRandomString();
-              var keystoreFileName = outputFileName + ".json";
-              var configFileName = outputFileName + ".yaml";
-
-              // generate keystore file
-              try {
-                createKeyStoreFile(
-                    blsKeyPair.getSecretKey().toBytes(),
-                    blsKeyPair.getPublicKey().toBytesCompressed(),
-                    "password",
-                    outputDir.resolve(keystoreFileName),
-                    kdfCounter);
-              } catch (final IOException e) {
-                LOG.error(
-                    "Unable to create keystore file: {}. Error: {}",
-                    keystoreFileName,
-                    e.getMessage());
-                return;
-              }
-
-              count.incrementAndGet();
-
-              if (!generateConfig) {
-                return;
-              }
-
-              // create configuration file
-              var configFileMap =
-                  Map.of(
-                      "type",
-                      "file-keystore",
-                      "keyType",
-                      "BLS",
-                      "keystoreFile",
-                      Optional.ofNullable(keystoreDirInConfig)
-                          .orElse(outputDir)
-                          .resolve(keystoreFileName)
-                          .toString(), // json file
-                      "keystorePasswordFile",
-                      Optional.ofNullable(keystoreDirInConfig)
-                          .orElse(outputDir)
-                          .resolve("password.txt")
-                          .toString()); // password file
-              var content = new Yaml(DUMPER_OPTIONS).dump(configFileMap);
-              try {
-                Files.writeString(outputDir.resolve(configFileName), content);
-              } catch (IOException e) {
-                LOG.error(
-                    "Error creating configuration file {}: {}", configFileName, e.getMessage());
-              }
-            });
-
-    LOG.info("Created {} keystore/configuration files in {}", count.get(), outputDir);
-  }
-
-  private void createKeyStoreFile(
-      final Bytes privateKey,
-      final Bytes publicKey,
-      final String password,
-      final Path keyStoreFilePath,
-      final int kdfCounter)
-      throws IOException {
-    final Bytes salt = Bytes.random(32, BLSKeyGenerator.getSecureRandom());
-    final Bytes iv = Bytes.random(16, BLSKeyGenerator.getSecureRandom());
-    // final int counter = 65536; // 2^16
-    final KdfParam kdfParam = new Pbkdf2Param(32, kdfCounter, HMAC_SHA256, salt);
-    final Cipher cipher = new Cipher(CipherFunction.AES_128_CTR, iv);
-    final KeyStoreData keyStoreData =
-        KeyStore.encrypt(privateKey, publicKey, password, "", kdfParam, cipher);
-    KeyStoreLoader.saveToFile(keyStoreFilePath, keyStoreData);
-  }
-
-  private String getHashicorpYamlConfiguration(
-      final URI uri, final String token, final Path tlsKnownHosts, final String overrideVaultHost) {
     // create configuration file
-    final Map<String, Object> map = new HashMap<>();
-    map.put("type", "hashicorp");
-    map.put("keyPath", uri.getPath());
-    map.put("keyName", "value");
-    map.put(
-        "serverHost",
-        overrideVaultHost == null || overrideVaultHost.isBlank()
-            ? uri.getHost()
-            : overrideVaultHost);
-    map.put("serverPort", uri.getPort());
-    map.put("token", token);
-
-    if ("https".equalsIgnoreCase(uri.getScheme())) {
-      map.put("tlsEnabled", "true");
-      map.put("tlsKnownServersPath", tlsKnownHosts.toString());
+    addConfig(
+        outputFileName,
+        getKeystoreYamlConfiguration(keystoreDirInConfig, keystoreFile),
+        configFile -> fileWritten.run());
+    return true;
+  }
+
+  /**
+   * Number of keys whose files have been written. Files are written asynchronously, so the count
+   * is only complete once the configuration is closed.
+   */
+  public long getWrittenCount() {
+    return keysWritten.sum();
+  }
+
+  /**
+   * Writes the last partial bundle, waits for the queued files to be written and writes the
+   * {@link PubkeyManifest} of the written files.
+   */
+  @Override
+  public void close() {
+    if (bundler != null) {
+      bundler.flush();
+    }
+    outputWriter.close(PubkeyManifest.FILE_NAME, manifest::build);
+  }
+
+  /**
+   * @param onWritten if not null, called with the path of the file holding the configuration once
+   *     it has been written
+   */
+  private void addConfig(
+      final String fileName, final byte[] content, final Consumer<Path> onWritten) {
+    if (bundler == null) {
+      writeConfigFile(fileName, content, onWritten);
     } else {
-      map.put("tlsEnabled", "false");
+      bundler.add(fileName, content, onWritten);
     }
+  }
 
-    return new Yaml(DUMPER_OPTIONS).dump(map);
+  private void writeConfigFile(
+      final String fileName, final byte[] content, final Consumer<Path> onWritten) {
+    final Path configFile = outputWriter.shardedPath(fileName + ".yaml");
+    outputWriter.write(
+        configFile, content, onWritten == null ? null : () -> onWritten.accept(configFile));
+  }
+
+  byte[] getRawYamlConfiguration(final BLSKeyPair blsKeyPair) {
+    return RawTemplate.TEMPLATE.render(blsKeyPair.getSecretKey().toBytes().toHexString());
+  }
+
+  byte[] getKeystoreYamlConfiguration(final Path keystoreDirInConfig, final Path keystoreFile) {
+    final Path keystoreDir = Optional.ofNullable(keystoreDirInConfig).orElse(outputDir);
+    final YamlTemplate template =
+        keystoreTemplates.computeIfAbsent(
+            keystoreDir,
+            dir ->
+                YamlTemplate.builder()
+                    .constant("type", "file-keystore")
+                    .constant("keyType", "BLS")
+                    .field("keystoreFile") // json file
+                    .constant("keystorePasswordFile", dir.resolve(PASSWORD_FILE)) // password file
+                    .build());
+    return template.render(keystoreDir.resolve(keystoreFile).toString());
+  }
+
+  byte[] getHashicorpYamlConfiguration(
+      final URI uri,
+      final String keyName,
+      final String token,
+      final Path tlsKnownHosts,
+      final String overrideVaultHost) {
+    final boolean tlsEnabled = "https".equalsIgnoreCase(uri.getScheme());
+    final HashicorpTemplateKey templateKey =
+        new HashicorpTemplateKey(
+            overrideVaultHost == null || overrideVaultHost.isBlank()
+                ? uri.getHost()
+                : overrideVaultHost,
+            uri.getPort(),
+            token,
+            tlsEnabled,
+            tlsEnabled && tlsKnownHosts != null ? tlsKnownHosts.toString() : null);
+    return hashicorpTemplates
+        .computeIfAbsent(templateKey, HashicorpTemplateKey::compile)
+        .render(uri.getPath(), keyName);
+  }
+
+  /** Compiled on first use, so runs writing no raw configuration don't initialise SnakeYAML. */
+  private static final class RawTemplate {
+    private static final YamlTemplate TEMPLATE =
+        YamlTemplate.builder().constant("type", "file-raw").field("privateKey").build();
+  }
+
+  /** Settings shared by all hashicorp configuration files of a run. */
+  private record HashicorpTemplateKey(
+      String serverHost,
+      int serverPort,
+      String token,
+      boolean tlsEnabled,
+      String tlsKnownServersPath) {
+
+    // entries in the order SnakeYAML dumped the previously used HashMap
+    YamlTemplate compile() {
+      final YamlTemplate.Builder builder =
+          YamlTemplate.builder()
+              .constant("tlsEnabled", String.valueOf(tlsEnabled))
+              .field("keyPath")
+              .field("keyName");
+      // without a known hosts file web3signer trusts the vault through the default trust store
+      if (tlsKnownServersPath != null) {
+        builder.constant("tlsKnownServersPath", tlsKnownServersPath);
+      }
+      return builder
+          .constant("type", "hashicorp")
+          .constant("serverPort", serverPort)
+          .constant("serverHost", serverHost)
+          .constant("token", token)
+          .build();
+    }
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Packs rendered signer configurations into multi-document YAML files of up to {@code bundleSize}
+ * documents each, named after their first document. Safe to use from several threads; complete
+ * bundles are handed to the sink outside the lock, together with a callback running the callbacks
+ * of the bundled documents. Documents are kept as rendered and copied once, into a bundle of the
+ * exact size.
+ */
+public class YamlBundler {
+  private static final byte[] DOCUMENT_START = "---\n".getBytes(StandardCharsets.UTF_8);
+
+  /** Writes a bundle, passing the path it was written to to {@code onWritten} if not null. */
+  @FunctionalInterface
+  public interface Sink {
+    void write(String fileName, byte[] content, Consumer<Path> onWritten);
+  }
+
+  private final int bundleSize;
+  private final Sink sink;
+  private final List<byte[]> documents = new ArrayList<>();
+  private final List<Consumer<Path>> callbacks = new ArrayList<>();
+  private String fileName;
+  private int length;
+
+  public YamlBundler(final int bundleSize, final Sink sink) {
+    this.bundleSize = bundleSize;
+    this.sink = sink;
+  }
+
+  /**
+   * @param fileName name of the bundle if the document is the first of its bundle
+   * @param onWritten if not null, called with the path of the bundle containing the document once
+   *     it has been written
+   */
+  public void add(final String fileName, final byte[] document, final Consumer<Path> onWritten) {
+    final Bundle bundle;
+    synchronized (documents) {
+      if (documents.isEmpty()) {
+        this.fileName = fileName;
+      }
+      documents.add(document);
+      length += DOCUMENT_START.length + document.length;
+      if (onWritten != null) {
+        callbacks.add(onWritten);
+      }
+      if (documents.size() < bundleSize) {
+        return;
+      }
+      bundle = takeBundle();
+    }
+    sink.write(bundle.fileName(), bundle.content(), bundle.onWritten());
+  }
+
+  /** Hands the last, partially filled bundle to the sink. */
+  public void flush() {
+    final Bundle bundle;
+    synchronized (documents) {
+      if (documents.isEmpty()) {
+        return;
+      }
+      bundle = takeBundle();
+    }
+    sink.write(bundle.fileName(), bundle.content(), bundle.onWritten());
+  }
+
+  private record Bundle(String fileName, byte[] content, Consumer<Path> onWritten) {}
+
+  private Bundle takeBundle() {
+    final byte[] content = new byte[length];
+    int position = 0;
+    for (final byte[] document : documents) {
+      System.arraycopy(DOCUMENT_START, 0, content, position, DOCUMENT_START.length);
+      position += DOCUMENT_START.length;
+      System.arraycopy(document, 0, content, position, document.length);
+      position += document.length;
+    }
+    final Consumer<Path> onWritten;
+    if (callbacks.isEmpty()) {
+      onWritten = null;
+    } else {
+      final List<Consumer<Path>> bundleCallbacks = List.copyOf(callbacks);
+      onWritten = path -> bundleCallbacks.forEach(callback -> callback.accept(path));
+    }
+    final Bundle bundle = new Bundle(fileName, content, onWritten);
+    documents.clear();
+    callbacks.clear();
+    fileName = null;
+    length = 0;
+    return bundle;
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Block style YAML mapping compiled once into pre-rendered constant entries and value slots, so
+ * that rendering a signer configuration only copies bytes into an array of the exact size of the
+ * file instead of running SnakeYAML's representer for every file. The array is handed to the
+ * writer as is, without further copies.
+ *
+ * <p>Values are emitted the way SnakeYAML would emit them: plain if the scalar would be read back
+ * as a string, single quoted otherwise (e.g. {@code '0x..'} which resolves to an int). Values
+ * outside of the simple character set are rendered by SnakeYAML itself.
+ */
+public class YamlTemplate {
+  // either byte[] of pre-rendered entries or String key of a value slot
+  private final List<Object> parts;
+  private final int slots;
+  private final int constantLength;
+
+  private YamlTemplate(final List<Object> parts) {
+    this.parts = parts;
+    this.slots = (int) parts.stream().filter(part -> part instanceof String).count();
+    this.constantLength =
+        parts.stream().mapToInt(part -> part instanceof byte[] bytes ? bytes.length : 0).sum();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Renders the template with one value per slot, in the order the slots were added. */
+  public byte[] render(final String... values) {
+    if (values.length != slots) {
+      throw new IllegalArgumentException(
+          "Expected " + slots + " values but got " + Arrays.toString(values));
+    }
+    // sized up front, entries of values SnakeYAML renders are kept until they are copied
+    final byte[][] dumped = new byte[slots][];
+    final boolean[] quoted = new boolean[slots];
+    int length = constantLength;
+    int valueIndex = 0;
+    for (final Object part : parts) {
+      if (part instanceof String key) {
+        final String value = values[valueIndex];
+        if (isSimpleScalar(value)) {
+          quoted[valueIndex] = needsQuotes(value);
+          length += key.length() + 3 + value.length() + (quoted[valueIndex] ? 2 : 0);
+        } else {
+          dumped[valueIndex] = dump(key, value);
+          length += dumped[valueIndex].length;
+        }
+        valueIndex++;
+      }
+    }
+
+    final byte[] content = new byte[length];
+    int position = 0;
+    valueIndex = 0;
+    for (final Object part : parts) {
+      if (part instanceof byte[] bytes) {
+        System.arraycopy(bytes, 0, content, position, bytes.length);
+        position += bytes.length;
+      } else if (dumped[valueIndex] != null) {
+        final byte[] entry = dumped[valueIndex++];
+        System.arraycopy(entry, 0, content, position, entry.length);
+        position += entry.length;
+      } else {
+        position = writeAscii(content, position, (String) part);
+        content[position++] = ':';
+        content[position++] = ' ';
+        final boolean quote = quoted[valueIndex];
+        if (quote) {
+          content[position++] = '\'';
+        }
+        position = writeAscii(content, position, values[valueIndex++]);
+        if (quote) {
+          content[position++] = '\'';
+        }
+        content[position++] = '\n';
+      }
+    }
+    return content;
+  }
+
+  private static void writeEntry(
+      final ByteArrayOutputStream buffer, final String key, final Object value) {
+    if (!(value instanceof String scalar) || !isSimpleScalar(scalar)) {
+      buffer.writeBytes(dump(key, value));
+      return;
+    }
+    writeAscii(buffer, key);
+    writeAscii(buffer, ": ");
+    if (needsQuotes(scalar)) {
+      buffer.write('\'');
+      writeAscii(buffer, scalar);
+      buffer.write('\'');
+    } else {
+      writeAscii(buffer, scalar);
+    }
+    buffer.write('\n');
+  }
+
+  private static byte[] dump(final String key, final Object value) {
+    final Yaml yaml = new Yaml(SnakeYaml.DUMPER_OPTIONS);
+    return yaml.dump(Map.of(key, value)).getBytes(UTF_8);
+  }
+
+  /** Whether a simple scalar would be read back as something other than a string. */
+  private static boolean needsQuotes(final String scalar) {
+    return !SnakeYaml.RESOLVER.resolve(NodeId.scalar, scalar, true).equals(Tag.STR);
+  }
+
+  /** Scalars made of characters that never need escaping, quoting or line folding. */
+  private static boolean isSimpleScalar(final String value) {
+    if (value.isEmpty() || value.charAt(0) == '-') {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      final boolean simple =
+          (c >= 'a' && c <= 'z')
+              || (c >= 'A' && c <= 'Z')
+              || (c >= '0' && c <= '9')
+              || c == '.'
+              || c == '/'
+              || c == '_'
+              || c == '-';
+      if (!simple) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void writeAscii(final ByteArrayOutputStream buffer, final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      buffer.write(value.charAt(i));
+    }
+  }
+
+  /** Returns the position after the written value. */
+  private static int writeAscii(final byte[] content, final int position, final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      content[position + i] = (byte) value.charAt(i);
+    }
+    return position + value.length();
+  }
+
+  /** Initialises SnakeYAML when the first template is compiled rather than when this loads. */
+  private static final class SnakeYaml {
+    private static final DumperOptions DUMPER_OPTIONS = new DumperOptions();
+    private static final Resolver RESOLVER = new Resolver();
+
+    static {
+      DUMPER_OPTIONS.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+    }
+  }
+
+  public static class Builder {
+    private final List<Object> parts = new ArrayList<>();
+    private final ByteArrayOutputStream constants = new ByteArrayOutputStream();
+
+    /** Entry whose value is the same for every rendered file. */
+    public Builder constant(final String key, final Object value) {
+      writeEntry(constants, key, value instanceof Integer ? value : String.valueOf(value));
+      return this;
+    }
+
+    /** Entry whose value is supplied to {@link #render(String...)}. */
+    public Builder field(final String key) {
+      flushConstants();
+      parts.add(key);
+      return this;
+    }
+
+    public YamlTemplate build() {
+      flushConstants();
+      return new YamlTemplate(List.copyOf(parts));
+    }
+
+    private void flushConstants() {
+      if (constants.size() > 0) {
+        parts.add(constants.toByteArray());
+        constants.reset();
+      }
+    }
+  }
+}
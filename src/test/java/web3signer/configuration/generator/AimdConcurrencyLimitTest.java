@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AimdConcurrencyLimitTest {
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private long nanos = 1_000_000_000L;
+
+  @Test
+  void overloadHalvesTheLimitOncePerInterval() {
+    final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(64, this::now);
+    assertEquals(64, limit.getLimit());
+    limit.onOverload();
+    assertEquals(32, limit.getLimit());
+    // failures of the same window count once
+    limit.onOverload();
+    advanceMillis(99);
+    limit.onOverload();
+    assertEquals(32, limit.getLimit());
+    advanceMillis(1);
+    limit.onOverload();
+    assertEquals(16, limit.getLimit());
+  }
+
+  @Test
+  void limitNeverDropsBelowOne() {
+    final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(4, this::now);
+    for (int i = 0; i < 10; i++) {
+      limit.onOverload();
+      advanceMillis(100);
+    }
+    assertEquals(1, limit.getLimit());
+  }
+
+  @Test
+  void successesGrowTheLimitByAboutOnePerWindowUpToTheMaximum() {
+    final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10, this::now);
+    limit.onOverload();
+    assertEquals(5, limit.getLimit());
+    // 5 + 1/5 + 1/5.2 + ... passes 6 on the sixth success
+    for (int i = 0; i < 5; i++) {
+      limit.onSuccess(FAST);
+    }
+    assertEquals(5, limit.getLimit());
+    limit.onSuccess(FAST);
+    assertEquals(6, limit.getLimit());
+
+    for (int i = 0; i < 1000; i++) {
+      limit.onSuccess(FAST);
+    }
+    assertEquals(10, limit.getLimit());
+  }
+
+  @Test
+  void latencyWellAboveTheBaselineCountsAsOverload() {
+    final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(64, this::now);
+    limit.onSuccess(TimeUnit.MILLISECONDS.toNanos(60));
+    assertEquals(64, limit.getLimit());
+    limit.onSuccess(TimeUnit.MILLISECONDS.toNanos(110));
+    assertEquals(64, limit.getLimit());
+    limit.onSuccess(TimeUnit.MILLISECONDS.toNanos(130));
+    assertEquals(32, limit.getLimit());
+  }
+
+  @Test
+  void latencyBelowTheCongestionFloorNeverCountsAsOverload() {
+    final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(64, this::now);
+    limit.onSuccess(FAST);
+    limit.onSuccess(TimeUnit.MILLISECONDS.toNanos(40));
+    assertEquals(64, limit.getLimit());
+  }
+
+  @Test
+  void acquireBlocksWhileTheLimitIsInFlight() throws InterruptedException {
+    final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(2, this::now);
+    limit.acquire();
+    limit.acquire();
+    final CountDownLatch acquired = new CountDownLatch(1);
+    final Thread waiter =
+        Thread.ofPlatform()
+            .start(
+                () -> {
+                  try {
+                    limit.acquire();
+                    acquired.countDown();
+                  } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                });
+    assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+    limit.release();
+    assertTrue(acquired.await(10, TimeUnit.SECONDS));
+    waiter.join();
+
+    limit.release();
+    limit.release();
+    limit.awaitIdle();
+  }
+
+  @Test
+  void awaitIdleWaitsForTheLastRelease() throws InterruptedException {
+    final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(2, this::now);
+    limit.acquire();
+    final CountDownLatch idle = new CountDownLatch(1);
+    final Thread waiter =
+        Thread.ofPlatform()
+            .start(
+                () -> {
+                  try {
+                    limit.awaitIdle();
+                    idle.countDown();
+                  } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                });
+    assertFalse(idle.await(100, TimeUnit.MILLISECONDS));
+    limit.release();
+    assertTrue(idle.await(10, TimeUnit.SECONDS));
+    waiter.join();
+  }
+
+  private long now() {
+    return nanos;
+  }
+
+  private void advanceMillis(final long millis) {
+    nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+}
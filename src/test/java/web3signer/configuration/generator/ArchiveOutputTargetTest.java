@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Reads archives written by {@link ArchiveOutputTarget} back with a minimal ustar reader. */
+class ArchiveOutputTargetTest {
+  private static final String LONG_DIRECTORY = "d".repeat(120);
+  private static final Map<Path, byte[]> FILES = new LinkedHashMap<>();
+
+  static {
+    FILES.put(Path.of("password.txt"), "password".getBytes(UTF_8));
+    FILES.put(Path.of("ab", "cd", "abcdef.yaml"), "type: \"file-raw\"\n".getBytes(UTF_8));
+    // a multiple of the block size needs no padding
+    FILES.put(Path.of("ab", "block.json"), new byte[512]);
+    FILES.put(Path.of("empty.yaml"), new byte[0]);
+    // longer than the name field, its directory goes into the prefix field
+    FILES.put(Path.of(LONG_DIRECTORY, "f".repeat(90) + ".yaml"), "long".getBytes(UTF_8));
+  }
+
+  @TempDir Path tempDir;
+
+  @Test
+  void tarEntriesMatchWrittenFiles() throws IOException {
+    final Path archive = write(OutputFormat.TAR);
+    try (final InputStream in = Files.newInputStream(archive)) {
+      assertEntries(readTar(in));
+    }
+    assertEquals(0, Files.size(archive) % 512);
+  }
+
+  @Test
+  void tarGzEntriesMatchWrittenFiles() throws IOException {
+    final Path archive = write(OutputFormat.TAR_GZ);
+    try (final InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+      assertEntries(readTar(in));
+    }
+  }
+
+  @Test
+  void zipEntriesMatchWrittenFiles() throws IOException {
+    final Path archive = write(OutputFormat.ZIP);
+    final Map<String, byte[]> entries = new LinkedHashMap<>();
+    try (final ZipInputStream in = new ZipInputStream(Files.newInputStream(archive), UTF_8)) {
+      ZipEntry entry;
+      while ((entry = in.getNextEntry()) != null) {
+        entries.put(entry.getName(), in.readAllBytes());
+      }
+    }
+    assertEntries(entries);
+  }
+
+  @Test
+  void namesTooLongForTarAreRejected() throws IOException {
+    try (final ArchiveOutputTarget target =
+        new ArchiveOutputTarget(tempDir.resolve("keys.tar"), OutputFormat.TAR)) {
+      final byte[] content = new byte[1];
+      // the file name alone doesn't fit the name field
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> target.write(Path.of("ab", "f".repeat(101)), content));
+      // the directories don't fit the prefix field
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> target.write(Path.of("d".repeat(160), "abcdef.yaml"), content));
+    }
+  }
+
+  @Test
+  void directoryFormatIsRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ArchiveOutputTarget(tempDir.resolve("keys"), OutputFormat.DIR));
+  }
+
+  private Path write(final OutputFormat format) throws IOException {
+    final Path archive = format.archivePath(tempDir.resolve("keys"));
+    try (final ArchiveOutputTarget target = new ArchiveOutputTarget(archive, format)) {
+      for (final Map.Entry<Path, byte[]> file : FILES.entrySet()) {
+        target.write(file.getKey(), file.getValue());
+      }
+    }
+    return archive;
+  }
+
+  private static void assertEntries(final Map<String, byte[]> entries) {
+    assertEquals(FILES.size(), entries.size());
+    for (final Map.Entry<Path, byte[]> file : FILES.entrySet()) {
+      final String name = file.getKey().toString().replace('\\', '/');
+      assertArrayEquals(file.getValue(), entries.get(name), name);
+    }
+  }
+
+  /** Entries of a ustar archive of regular files, checking headers, padding and end marker. */
+  private static Map<String, byte[]> readTar(final InputStream in) throws IOException {
+    final Map<String, byte[]> entries = new LinkedHashMap<>();
+    while (true) {
+      final byte[] header = in.readNBytes(512);
+      assertEquals(512, header.length, "truncated archive");
+      if (isZero(header)) {
+        assertArrayEquals(new byte[512], in.readNBytes(512), "second end of archive block");
+        assertEquals(-1, in.read(), "data after end of archive");
+        return entries;
+      }
+      assertEquals("ustar\0", ascii(header, 257, 6));
+      assertEquals("00", ascii(header, 263, 2));
+      assertEquals('0', (char) header[156]);
+      assertEquals(0644, octal(header, 100, 8));
+      long checksum = 0;
+      for (int i = 0; i < header.length; i++) {
+        checksum += i >= 148 && i < 156 ? ' ' : header[i] & 0xff;
+      }
+      assertEquals(checksum, octal(header, 148, 8));
+
+      final String name = string(header, 0, 100);
+      final String prefix = string(header, 345, 155);
+      final int size = (int) octal(header, 124, 12);
+      entries.put(prefix.isEmpty() ? name : prefix + "/" + name, in.readNBytes(size));
+      final int padding = (512 - size % 512) % 512;
+      assertArrayEquals(new byte[padding], in.readNBytes(padding), "padding of " + name);
+    }
+  }
+
+  private static boolean isZero(final byte[] block) {
+    for (final byte b : block) {
+      if (b != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String ascii(final byte[] header, final int offset, final int length) {
+    return new String(header, offset, length, UTF_8);
+  }
+
+  /** NUL terminated string of a header field. */
+  private static String string(final byte[] header, final int offset, final int length) {
+    int end = offset;
+    while (end < offset + length && header[end] != 0) {
+      end++;
+    }
+    return new String(header, offset, end - offset, UTF_8);
+  }
+
+  private static long octal(final byte[] header, final int offset, final int length) {
+    return Long.parseLong(string(header, offset, length).trim(), 8);
+  }
+}
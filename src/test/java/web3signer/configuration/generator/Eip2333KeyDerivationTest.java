@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.HexFormat;
+import org.junit.jupiter.api.Test;
+
+class Eip2333KeyDerivationTest {
+  private static final HexFormat HEX = HexFormat.of();
+
+  // BIP-39 test vector: "abandon" x 11 + "about" with passphrase "TREZOR"
+  private static final String BIP39_MNEMONIC =
+      "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon"
+          + " about";
+  private static final byte[] BIP39_SEED =
+      HEX.parseHex(
+          "c55257c360c07c72029aebc1b53c05ed0362ada38ead3e3e9efa3708e5349553"
+              + "1f09a6987599d18264c1e1c92f2cf141630c7a3c4ab7c81b2f001698e7463b04");
+
+  @Test
+  void mnemonicToSeedMatchesBip39Vector() {
+    assertArrayEquals(BIP39_SEED, Eip2333KeyDerivation.mnemonicToSeed(BIP39_MNEMONIC, "TREZOR"));
+  }
+
+  @Test
+  void mnemonicToSeedNormalizesWhitespace() {
+    final String mnemonic = "  " + BIP39_MNEMONIC.replace(" ", " \n\t") + "\n";
+    assertArrayEquals(BIP39_SEED, Eip2333KeyDerivation.mnemonicToSeed(mnemonic, "TREZOR"));
+  }
+
+  @Test
+  void masterAndChildKeysMatchEip2333TestCase0() {
+    assertDerivation(
+        BIP39_SEED,
+        "6083874454709270928345386274498605044986640685124978867557563392430687146096",
+        0,
+        "20397789859736650942317412262472558107875392172444076792671091975210932703118");
+  }
+
+  @Test
+  void masterAndChildKeysMatchEip2333TestCase1() {
+    assertDerivation(
+        HEX.parseHex("3141592653589793238462643383279502884197169399375105820974944592"),
+        "29757020647961307431480504535336562678282505419141012933316116377660817309383",
+        3141592653L,
+        "25457201688850691947727629385191704516744796114925897962676248250929345014287");
+  }
+
+  @Test
+  void masterAndChildKeysMatchEip2333TestCase2() {
+    assertDerivation(
+        HEX.parseHex("0099FF991111002299DD7744EE3355BBDD8844115566CC55663355668888CC00"),
+        "27580842291869792442942448775674722299803720648445448686099262467207037398656",
+        4294967295L,
+        "29358610794459428860402234341874281240803786294062035874021252734817515685787");
+  }
+
+  @Test
+  void masterAndChildKeysMatchEip2333TestCase3() {
+    assertDerivation(
+        HEX.parseHex("d4e56740f876aef8c010b86a40d5f56745a118d0906a34e69aec8c0db1cb8fa3"),
+        "19022158461524446591288038168518313374041767046816487870552872741050760015818",
+        42,
+        "31372231650479070279774297061823572166496564838472787488249775572789064611981");
+  }
+
+  @Test
+  void seedShorterThan32BytesIsRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Eip2333KeyDerivation.deriveMasterSecretKey(new byte[31]));
+  }
+
+  @Test
+  void signingKeysFollowEip2334ValidatorPath() {
+    final Eip2333KeyDerivation keyDerivation = new Eip2333KeyDerivation(BIP39_SEED);
+    final BigInteger master = Eip2333KeyDerivation.deriveMasterSecretKey(BIP39_SEED);
+    for (final int index : new int[] {0, 1, 2, Integer.MAX_VALUE}) {
+      // m/12381/3600/index/0/0
+      BigInteger expected = master;
+      for (final long pathIndex : new long[] {12381, 3600, index, 0, 0}) {
+        expected = Eip2333KeyDerivation.deriveChildSecretKey(expected, pathIndex);
+      }
+      assertEquals(
+          expected, new BigInteger(1, keyDerivation.deriveSigningKey(index)), "index " + index);
+    }
+  }
+
+  @Test
+  void signingKeysAreStableAcrossReleases() {
+    // m/12381/3600/i/0/0 of the BIP-39 vector seed, pinned so that changes to the derivation or
+    // to the encoding of the keys don't go unnoticed
+    final Eip2333KeyDerivation keyDerivation = new Eip2333KeyDerivation(BIP39_SEED);
+    assertEquals(
+        "032e6c3c7359223e127e9479afc521c4342f8903bc29ae01b671bcbcc98be0f6",
+        HEX.formatHex(keyDerivation.deriveSigningKey(0)));
+    assertEquals(
+        "51b94ab4703198edc37272cfc2d77e87e26fb1021eeec04e0a4f58e4c747653c",
+        HEX.formatHex(keyDerivation.deriveSigningKey(1)));
+    assertEquals(
+        "26c7c320a0e2f27a6405e96f4990d0f8a1f4566ba214487c1295e21b7a816112",
+        HEX.formatHex(keyDerivation.deriveSigningKey(2)));
+  }
+
+  private static void assertDerivation(
+      final byte[] seed,
+      final String masterSecretKey,
+      final long childIndex,
+      final String childSecretKey) {
+    final BigInteger master = Eip2333KeyDerivation.deriveMasterSecretKey(seed);
+    assertEquals(new BigInteger(masterSecretKey), master);
+    assertEquals(
+        new BigInteger(childSecretKey),
+        Eip2333KeyDerivation.deriveChildSecretKey(master, childIndex));
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+class ExistingKeyIndexTest {
+  private static final List<BLSKeyPair> KEYS =
+      IntStream.range(0, 8).mapToObj(BLSKeyPair::random).toList();
+
+  @TempDir Path tempDir;
+
+  @Test
+  void keysOfAllOutputFormatsAreIndexed() throws IOException {
+    final Path shard = Files.createDirectories(tempDir.resolve("ab").resolve("cd"));
+    Files.writeString(
+        shard.resolve("keystore.json"),
+        "{\"crypto\":{},\"pubkey\":\"" + publicKey(0) + "\",\"version\":4}");
+    // its configuration file only points at the keystore
+    Files.writeString(
+        shard.resolve("keystore.yaml"),
+        "type: file-keystore\nkeyType: BLS\nkeystoreFile: ab/cd/keystore.json\n");
+    Files.writeString(
+        tempDir.resolve("raw.yaml"),
+        "type: file-raw\nkeyType: BLS\nprivateKey: '"
+            + KEYS.get(1).getSecretKey().toBytes().toHexString().toUpperCase(Locale.ROOT)
+            + "'\n");
+    Files.writeString(
+        tempDir.resolve("hashicorp.yml"),
+        "type: hashicorp\nkeyPath: /v1/secret/data/" + publicKey(2) + "\nkeyName: value\n");
+    // bundled configurations of keys sharing a secret
+    Files.writeString(
+        tempDir.resolve("bundle.yaml"),
+        "---\ntype: hashicorp\nkeyPath: /v1/secret/data/"
+            + publicKey(3)
+            + "\nkeyName: "
+            + publicKey(3)
+            + "\n---\ntype: hashicorp\nkeyPath: /v1/secret/data/"
+            + publicKey(3)
+            + "\nkeyName: '0x"
+            + publicKey(4)
+            + "'\n");
+    Files.writeString(tempDir.resolve("notes.txt"), "privateKey: " + publicKey(5));
+
+    final ExistingKeyIndex index = ExistingKeyIndex.scan(tempDir);
+
+    assertEquals(5, index.size());
+    for (int i = 0; i < 5; i++) {
+      assertTrue(index.contains(KEYS.get(i)), "key " + i);
+    }
+    assertFalse(index.contains(KEYS.get(5)));
+  }
+
+  @Test
+  void missingOutputDirectoryHasNoKeys() {
+    final ExistingKeyIndex index = ExistingKeyIndex.scan(tempDir.resolve("missing"));
+    assertEquals(0, index.size());
+    assertFalse(index.contains(KEYS.get(0)));
+  }
+
+  @Test
+  void randomKeysOnlyTopUpTheMissingCount() throws IOException {
+    for (int i = 0; i < 3; i++) {
+      Files.writeString(tempDir.resolve(i + ".json"), "{\"pubkey\":\"" + publicKey(i) + "\"}");
+    }
+    final ExistingKeyIndex index = ExistingKeyIndex.scan(tempDir);
+
+    assertEquals(
+        Optional.of(new IndexRange(10, 12)), index.rangeToGenerate(new IndexRange(10, 15), false));
+    assertEquals(Optional.empty(), index.rangeToGenerate(new IndexRange(10, 13), false));
+    // deterministic keys are tied to their index, present ones are skipped while generating
+    assertEquals(
+        Optional.of(new IndexRange(10, 13)), index.rangeToGenerate(new IndexRange(10, 13), true));
+  }
+
+  private static String publicKey(final int key) {
+    return KEYS.get(key).getPublicKey().toBytesCompressed().toUnprefixedHexString();
+  }
+}
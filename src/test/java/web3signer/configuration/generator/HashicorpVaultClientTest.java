@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.bls.BLSKeyPair;
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+/** Inserts and reads back keys through a {@link MockVaultServer} injecting faults. */
+class HashicorpVaultClientTest {
+  private static final String TOKEN = "token";
+  private static final List<BLSKeyPair> KEYS =
+      IntStream.range(0, 20).mapToObj(BLSKeyPair::random).toList();
+
+  private MockVaultServer server;
+
+  @AfterEach
+  void stopServer() {
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  @Test
+  void insertedKeysAreBatchedIntoSecretsAndVerified() throws IOException {
+    startServer(0);
+    final Queue<VaultKeyLocation> locations = new ConcurrentLinkedQueue<>();
+    try (final HashicorpVaultClient client = client(TOKEN, 0, 3)) {
+      assertTrue(client.isInitialized());
+      KEYS.forEach(blsKeyPair -> client.insertSecretAsync(blsKeyPair, locations::add));
+      client.awaitInFlight();
+
+      assertEquals(KEYS.size(), locations.size());
+      assertEquals(0, client.getDroppedCount());
+      // 20 keys in secrets of 3, the last one holding the 2 keys of the partial batch
+      assertEquals(7, server.getSecretCount());
+      assertEquals(
+          KEYS.stream().map(BLSKeyPair::getPublicKey).collect(Collectors.toSet()),
+          locations.stream().map(VaultKeyLocation::publicKey).collect(Collectors.toSet()));
+
+      verify(client, locations);
+      assertEquals(KEYS.size(), client.getVerifiedCount());
+      assertEquals(0, client.getUnverifiedCount());
+    }
+  }
+
+  @Test
+  void insertedSecretsAreVerifiedOnceStored() throws IOException {
+    startServer(0.3);
+    try (final HashicorpVaultClient client = client(TOKEN, 10, 3)) {
+      client.verifyInsertedSecrets(secretName -> true);
+      KEYS.forEach(client::insertSecretAsync);
+      client.awaitInFlight();
+
+      assertEquals(0, client.getDroppedCount());
+      // reads failing with injected errors are retried like inserts
+      assertEquals(KEYS.size(), client.getVerifiedCount());
+      assertEquals(0, client.getUnverifiedCount());
+    }
+  }
+
+  @Test
+  void failedInsertsAreRetried() throws IOException {
+    startServer(0.3);
+    final Queue<VaultKeyLocation> locations = new ConcurrentLinkedQueue<>();
+    try (final HashicorpVaultClient client = client(TOKEN, 10, 1)) {
+      KEYS.forEach(blsKeyPair -> client.insertSecretAsync(blsKeyPair, locations::add));
+      client.awaitInFlight();
+
+      assertEquals(KEYS.size(), locations.size());
+      assertEquals(0, client.getDroppedCount());
+      assertEquals(KEYS.size(), server.getSecretCount());
+    }
+  }
+
+  @Test
+  void keysAreDroppedOnceRetriesAreExhausted() throws IOException {
+    startServer(1);
+    final Queue<VaultKeyLocation> locations = new ConcurrentLinkedQueue<>();
+    try (final HashicorpVaultClient client = client(TOKEN, 2, 2)) {
+      final List<CompletableFuture<Optional<BLSPublicKey>>> results = new ArrayList<>();
+      KEYS.forEach(
+          blsKeyPair -> results.add(client.insertSecretAsync(blsKeyPair, locations::add)));
+      client.awaitInFlight();
+
+      assertEquals(0, locations.size());
+      assertEquals(KEYS.size(), client.getDroppedCount());
+      results.forEach(result -> assertEquals(Optional.empty(), result.join()));
+    }
+  }
+
+  @Test
+  void rejectedInsertsAreNotRetried() throws IOException {
+    startServer(0);
+    // retried with backoff, the insert would take far longer than the test
+    try (final HashicorpVaultClient client = client("wrong token", 1000, 1)) {
+      assertEquals(Optional.empty(), client.insertSecret(KEYS.get(0)));
+      assertEquals(1, client.getDroppedCount());
+      assertEquals(0, server.getSecretCount());
+    }
+  }
+
+  @Test
+  void verificationCountsMissingAndMismatchedKeys() throws IOException {
+    startServer(0);
+    final Queue<VaultKeyLocation> locations = new ConcurrentLinkedQueue<>();
+    try (final HashicorpVaultClient client = client(TOKEN, 0, 2)) {
+      client.insertSecretAsync(KEYS.get(0), locations::add);
+      client.insertSecretAsync(KEYS.get(1), locations::add);
+      client.awaitInFlight();
+      final VaultKeyLocation stored = locations.peek();
+
+      final List<VaultKeyLocation> toVerify = new ArrayList<>(locations);
+      // an entry holding the secret key of another key
+      toVerify.add(
+          new VaultKeyLocation(
+              KEYS.get(2).getPublicKey(), stored.secretName(), stored.keyName()));
+      // an entry missing from the secret
+      toVerify.add(
+          new VaultKeyLocation(KEYS.get(3).getPublicKey(), stored.secretName(), "missing"));
+      // a secret that doesn't exist
+      toVerify.add(new VaultKeyLocation(KEYS.get(4).getPublicKey(), "missing", "value"));
+      verify(client, toVerify);
+
+      assertEquals(2, client.getVerifiedCount());
+      assertEquals(3, client.getUnverifiedCount());
+    }
+  }
+
+  private void startServer(final double errorRate) throws IOException {
+    server =
+        new MockVaultServer(
+                new InetSocketAddress("127.0.0.1", 0),
+                TOKEN,
+                new MockVaultServer.Behaviour(LatencyDistribution.NONE, errorRate, 0, 0, 17))
+            .start();
+  }
+
+  private HashicorpVaultClient client(
+      final String token, final int maxRetries, final int keysPerSecret) {
+    return new HashicorpVaultClient(
+        server.getSecretsEndpoint(), token, 4, 0, maxRetries, keysPerSecret, ExecutorMode.PLATFORM);
+  }
+
+  private static void verify(
+      final HashicorpVaultClient client, final Iterable<VaultKeyLocation> locations) {
+    final Map<String, List<VaultKeyLocation>> secrets = new HashMap<>();
+    for (final VaultKeyLocation location : locations) {
+      secrets.computeIfAbsent(location.secretName(), name -> new ArrayList<>()).add(location);
+    }
+    secrets.forEach(client::verifySecretAsync);
+    client.awaitInFlight();
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import org.apache.tuweni.bytes.Bytes48;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+class InsertJournalTest {
+  private static final String PARAMETERS =
+      "count=4 range=0-4 keys-per-secret=1 url=http://localhost:8200/v1/secret";
+
+  private final Random random = new Random(7);
+
+  @TempDir Path tempDir;
+
+  @Test
+  void resumeReplaysInsertedAndConfiguredKeys() throws IOException {
+    final Path journalFile = tempDir.resolve("keys.journal");
+    final VaultKeyLocation configured = location("secret-0", "value");
+    final VaultKeyLocation unconfigured = location("secret-1", "value");
+    try (final InsertJournal journal = InsertJournal.open(journalFile, false, PARAMETERS)) {
+      journal.recordInserted(0, configured);
+      journal.recordInserted(2, unconfigured);
+      journal.recordConfigured(configured.publicKey(), Path.of("ab", "cd", "abcdef.yaml"));
+    }
+
+    try (final InsertJournal journal = InsertJournal.open(journalFile, true, PARAMETERS)) {
+      assertTrue(journal.isInserted(0));
+      assertFalse(journal.isInserted(1));
+      assertTrue(journal.isInserted(2));
+      assertEquals(
+          List.of(new InsertJournal.Entry(2, unconfigured)),
+          List.copyOf(journal.getUnconfigured()));
+      assertEquals(
+          List.of(new InsertJournal.Configured(configured, Path.of("ab", "cd", "abcdef.yaml"))),
+          journal.takeConfigured());
+      assertEquals(List.of(), journal.takeConfigured());
+    }
+  }
+
+  @Test
+  void tornLastRecordIsIgnored() throws IOException {
+    final Path journalFile = tempDir.resolve("keys.journal");
+    final VaultKeyLocation location = location("batch-0", "key-0");
+    try (final InsertJournal journal = InsertJournal.open(journalFile, false, PARAMETERS)) {
+      journal.recordInserted(0, location);
+    }
+    final String publicKey = location.publicKey().toBytesCompressed().toUnprefixedHexString();
+    Files.writeString(journalFile, "C " + publicKey + " ab/c", UTF_8, StandardOpenOption.APPEND);
+
+    try (final InsertJournal journal = InsertJournal.open(journalFile, true, PARAMETERS)) {
+      assertEquals(1, journal.getUnconfigured().size());
+      assertEquals(List.of(), journal.takeConfigured());
+      journal.recordConfigured(location.publicKey(), Path.of("ab", "cd", "abcdef.yaml"));
+    }
+
+    // records appended after the torn record start on a line of their own
+    try (final InsertJournal journal = InsertJournal.open(journalFile, true, PARAMETERS)) {
+      assertEquals(0, journal.getUnconfigured().size());
+      assertEquals(
+          List.of(new InsertJournal.Configured(location, Path.of("ab", "cd", "abcdef.yaml"))),
+          journal.takeConfigured());
+    }
+  }
+
+  @Test
+  void malformedRecordsAreIgnored() throws IOException {
+    final Path journalFile = tempDir.resolve("keys.journal");
+    final VaultKeyLocation location = location("secret-0", "value");
+    final String publicKey = location.publicKey().toBytesCompressed().toUnprefixedHexString();
+    Files.writeString(
+        journalFile,
+        String.join(
+            "\n",
+            "I x " + publicKey + " secret-0 value",
+            "I 1 not-a-key secret-0 value",
+            "X 1",
+            "",
+            "I 3 " + publicKey + " secret-0 value",
+            // configuration record of a journal written before files were recorded
+            "C " + publicKey,
+            ""));
+
+    try (final InsertJournal journal = InsertJournal.open(journalFile, true, PARAMETERS)) {
+      assertFalse(journal.isInserted(1));
+      assertTrue(journal.isInserted(3));
+      assertEquals(0, journal.getUnconfigured().size());
+      assertEquals(List.of(), journal.takeConfigured());
+    }
+  }
+
+  @Test
+  void configuredRecordIsWrittenBeforeReturning() throws IOException {
+    final Path journalFile = tempDir.resolve("keys.journal");
+    final VaultKeyLocation location = location("secret-0", "value");
+    final String publicKey = location.publicKey().toBytesCompressed().toUnprefixedHexString();
+    try (final InsertJournal journal = InsertJournal.open(journalFile, false, PARAMETERS)) {
+      journal.recordInserted(0, location);
+      journal.recordConfigured(location.publicKey(), Path.of("abcdef.yaml"));
+      assertEquals(
+          List.of(
+              "H " + PARAMETERS,
+              "I 0 " + publicKey + " secret-0 value",
+              "C " + publicKey + " abcdef.yaml"),
+          Files.readAllLines(journalFile, UTF_8));
+    }
+  }
+
+  @Test
+  void existingJournalIsOnlyOpenedToResume() throws IOException {
+    final Path journalFile = tempDir.resolve("keys.journal");
+    try (final InsertJournal journal = InsertJournal.open(journalFile, false, PARAMETERS)) {
+      journal.recordInserted(0, location("secret-0", "value"));
+    }
+
+    assertThrows(
+        IllegalArgumentException.class, () -> InsertJournal.open(journalFile, false, PARAMETERS));
+    assertTrue(Files.exists(journalFile));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> InsertJournal.open(tempDir.resolve("other.journal"), true, PARAMETERS));
+  }
+
+  @Test
+  void journalIsOnlyResumedWithTheParametersOfItsRun() throws IOException {
+    final Path journalFile = tempDir.resolve("keys.journal");
+    try (final InsertJournal journal = InsertJournal.open(journalFile, false, PARAMETERS)) {
+      journal.recordInserted(0, location("secret-0", "value"));
+    }
+
+    final IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                InsertJournal.open(
+                    journalFile,
+                    true,
+                    "count=4 range=0-4 keys-per-secret=2 url=http://localhost:8200/v1/secret"));
+    assertTrue(e.getMessage().contains(PARAMETERS), e.getMessage());
+    try (final InsertJournal journal = InsertJournal.open(journalFile, true, PARAMETERS)) {
+      assertTrue(journal.isInserted(0));
+    }
+  }
+
+  @Test
+  void journalIsDeletedOnCloseOnlyOnceComplete() throws IOException {
+    final Path journalFile = tempDir.resolve("keys.journal");
+    final VaultKeyLocation configured = location("secret-0", "value");
+    try (final InsertJournal journal = InsertJournal.open(journalFile, false, PARAMETERS)) {
+      journal.recordInserted(0, configured);
+      journal.recordInserted(1, location("secret-1", "value"));
+      journal.recordConfigured(configured.publicKey(), Path.of("abcdef.yaml"));
+      journal.deleteOnCloseIfComplete();
+    }
+    assertTrue(Files.exists(journalFile));
+
+    try (final InsertJournal journal = InsertJournal.open(journalFile, true, PARAMETERS)) {
+      final InsertJournal.Entry unconfigured = journal.getUnconfigured().iterator().next();
+      journal.recordConfigured(unconfigured.location().publicKey(), Path.of("012345.yaml"));
+      journal.deleteOnCloseIfComplete();
+    }
+    assertFalse(Files.exists(journalFile));
+  }
+
+  private VaultKeyLocation location(final String secretName, final String keyName) {
+    final byte[] publicKey = new byte[48];
+    random.nextBytes(publicKey);
+    return new VaultKeyLocation(
+        BLSPublicKey.fromBytesCompressed(Bytes48.wrap(publicKey)), secretName, keyName);
+  }
+}
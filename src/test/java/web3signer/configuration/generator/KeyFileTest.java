@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+class KeyFileTest {
+  private static final IndexRange RANGE = new IndexRange(5, 25);
+  private static final List<BLSKeyPair> KEYS =
+      IntStream.range(0, RANGE.size()).mapToObj(BLSKeyPair::random).toList();
+
+  @TempDir Path tempDir;
+
+  @Test
+  void keysWrittenInAnyOrderAreReadBackByIndex() throws IOException {
+    final Path keyFile = writeKeyFile();
+    assertEquals(16 + RANGE.size() * 80L, Files.size(keyFile));
+
+    final KeyFile keys = KeyFile.open(keyFile);
+    assertEquals(RANGE, keys.getRange());
+    assertTrue(keys.isDeterministic());
+    for (int index = RANGE.start(); index < RANGE.end(); index++) {
+      final BLSKeyPair expected = KEYS.get(index - RANGE.start());
+      final BLSKeyPair actual = keys.keyPair(index);
+      assertEquals(expected.getPublicKey(), actual.getPublicKey(), "public key " + index);
+      assertEquals(
+          expected.getSecretKey().toBytes(), actual.getSecretKey().toBytes(), "secret " + index);
+    }
+  }
+
+  @Test
+  void indicesOutsideTheRangeAreRejected() throws IOException {
+    final KeyFile keys = KeyFile.open(writeKeyFile());
+    assertThrows(IndexOutOfBoundsException.class, () -> keys.keyPair(RANGE.start() - 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> keys.keyPair(RANGE.end()));
+
+    try (final KeyFile.Writer writer = KeyFile.create(tempDir.resolve("other.keys"), RANGE)) {
+      assertThrows(IndexOutOfBoundsException.class, () -> writer.write(RANGE.end(), KEYS.get(0)));
+    }
+  }
+
+  @Test
+  void creatingOverAnExistingFileTruncatesIt() throws IOException {
+    final Path keyFile = tempDir.resolve("test.keys");
+    Files.write(keyFile, new byte[100_000]);
+    try (final KeyFile.Writer writer = KeyFile.create(keyFile, new IndexRange(0, 1))) {
+      writer.write(0, KEYS.get(0));
+    }
+    assertEquals(16 + 80, Files.size(keyFile));
+    assertEquals(KEYS.get(0).getPublicKey(), KeyFile.open(keyFile).keyPair(0).getPublicKey());
+  }
+
+  @Test
+  void corruptKeyFilesAreRejected() throws IOException {
+    final byte[] valid = Files.readAllBytes(writeKeyFile());
+
+    assertRejected(Arrays.copyOf(valid, 15));
+    assertRejected(Arrays.copyOf(valid, valid.length - 1));
+    assertRejected(Arrays.copyOf(valid, valid.length + 80));
+    assertRejected(withInt(valid, 0, 0x5733534c));
+    assertRejected(withInt(valid, 4, 2));
+    assertRejected(withInt(valid, 8, -1));
+    assertRejected(withInt(valid, 12, 0));
+    assertRejected(withInt(valid, 8, Integer.MAX_VALUE - 10));
+  }
+
+  private Path writeKeyFile() throws IOException {
+    final Path keyFile = tempDir.resolve("test.keys");
+    try (final KeyFile.Writer writer = KeyFile.create(keyFile, RANGE)) {
+      for (int index = RANGE.end() - 1; index >= RANGE.start(); index--) {
+        assertTrue(writer.write(index, KEYS.get(index - RANGE.start())));
+      }
+    }
+    return keyFile;
+  }
+
+  private void assertRejected(final byte[] content) throws IOException {
+    final Path keyFile = Files.write(tempDir.resolve("corrupt.keys"), content);
+    assertThrows(IOException.class, () -> KeyFile.open(keyFile));
+  }
+
+  private static byte[] withInt(final byte[] content, final int offset, final int value) {
+    final byte[] copy = content.clone();
+    ByteBuffer.wrap(copy).putInt(offset, value);
+    return copy;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class KeyPipelineTest {
+  private static final int ITEMS = 2_000;
+
+  @Test
+  void everyIndexIsProducedAndConsumedOnce() {
+    final Set<Integer> consumed = ConcurrentHashMap.newKeySet();
+    final long accepted =
+        new KeyPipeline(3, 2, 4)
+            .run(
+                10,
+                10 + ITEMS,
+                index -> index,
+                index -> {
+                  assertTrue(consumed.add(index), "consumed twice: " + index);
+                  return true;
+                });
+
+    assertEquals(ITEMS, accepted);
+    assertEquals(ITEMS, consumed.size());
+    assertTrue(consumed.contains(10) && consumed.contains(10 + ITEMS - 1));
+  }
+
+  @Test
+  void rejectedAndFailedItemsAreNotCounted() {
+    final long accepted =
+        new KeyPipeline(2, 3, 16)
+            .run(
+                0,
+                ITEMS,
+                index -> index,
+                index -> {
+                  if (index % 10 == 0) {
+                    throw new IllegalStateException("sink failure " + index);
+                  }
+                  return index % 2 == 1;
+                });
+
+    // odd indices are accepted, none of them is a multiple of 10
+    assertEquals(ITEMS / 2, accepted);
+  }
+
+  @Test
+  void producerFailureIsRethrown() {
+    final IllegalStateException failure = new IllegalStateException("source failure");
+    final IllegalStateException thrown =
+        assertThrows(
+            IllegalStateException.class,
+            () ->
+                new KeyPipeline(2, 2, 4)
+                    .run(
+                        0,
+                        ITEMS,
+                        index -> {
+                          if (index == ITEMS / 2) {
+                            throw failure;
+                          }
+                          return index;
+                        },
+                        index -> true));
+    assertSame(failure, thrown);
+  }
+
+  @Test
+  void queueBoundsTheItemsInFlight() {
+    final int producers = 4;
+    final int queueCapacity = 8;
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    new KeyPipeline(producers, 1, queueCapacity)
+        .run(
+            0,
+            200,
+            index -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              return index;
+            },
+            index -> {
+              try {
+                Thread.sleep(1);
+              } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              inFlight.decrementAndGet();
+              return true;
+            });
+
+    // queued items, items producers wait to enqueue and the item being consumed
+    assertTrue(
+        maxInFlight.get() <= queueCapacity + producers + 1, "max in flight " + maxInFlight);
+  }
+
+  @Test
+  void invalidSizesAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new KeyPipeline(0, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new KeyPipeline(1, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new KeyPipeline(1, 1, 0));
+  }
+}
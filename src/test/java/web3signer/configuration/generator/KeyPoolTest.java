@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+class KeyPoolTest {
+  @Test
+  void poolIsFilledToTheHighWatermarkAndRefilledBelowTheLowOne() throws InterruptedException {
+    try (final KeyPool keyPool = new KeyPool(3, 8, 2)) {
+      awaitCondition(() -> keyPool.size() == 8);
+      // lets refill threads still generating a key find the pool full
+      Thread.sleep(100);
+
+      // taking keys down to just above the low watermark doesn't trigger a refill
+      for (int i = 0; i < 4; i++) {
+        keyPool.next();
+      }
+      Thread.sleep(100);
+      assertEquals(4, keyPool.size());
+
+      keyPool.next();
+      awaitCondition(() -> keyPool.size() == 8);
+      assertEquals(5, keyPool.getPooledCount());
+      assertEquals(0, keyPool.getGeneratedOnDemandCount());
+    }
+  }
+
+  @Test
+  void keysAreGeneratedOnDemandOnceThePoolIsEmpty() throws InterruptedException {
+    final KeyPool keyPool = new KeyPool(0, 4, 1);
+    awaitCondition(() -> keyPool.size() == 4);
+    // no refills once closed
+    keyPool.close();
+
+    final Set<BLSPublicKey> publicKeys = new HashSet<>();
+    for (int i = 0; i < 6; i++) {
+      publicKeys.add(keyPool.next().getPublicKey());
+    }
+    assertEquals(6, publicKeys.size());
+    assertEquals(4, keyPool.getPooledCount());
+    assertEquals(2, keyPool.getGeneratedOnDemandCount());
+  }
+
+  @Test
+  void invalidWatermarksAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new KeyPool(-1, 4, 1));
+    assertThrows(IllegalArgumentException.class, () -> new KeyPool(4, 4, 1));
+  }
+
+  private static void awaitCondition(final BooleanSupplier condition)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + 10_000_000_000L;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "timed out waiting for the key pool");
+      Thread.sleep(10);
+    }
+  }
+}
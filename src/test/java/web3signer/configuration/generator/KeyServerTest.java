@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Generation requests against a {@link KeyServer} on a loopback port. */
+class KeyServerTest {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private KeyPool keyPool;
+  private KeyServer keyServer;
+
+  @TempDir Path tempDir;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    keyPool = new KeyPool(2, 8, 1);
+    keyServer =
+        new KeyServer(
+                new InetSocketAddress("127.0.0.1", 0),
+                keyPool,
+                new OutputOptions(),
+                new KdfOptions(),
+                tempDir)
+            .start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    keyServer.close();
+    keyPool.close();
+  }
+
+  @Test
+  void rawRequestWritesConfigurationFilesBelowTheOutputRoot() throws Exception {
+    final HttpResponse<String> response = post("/raw", "{\"count\":5,\"output\":\"keys\"}");
+
+    assertEquals(200, response.statusCode(), response.body());
+    final JsonNode body = OBJECT_MAPPER.readTree(response.body());
+    assertEquals(5, body.get("created").asInt());
+    try (final Stream<Path> files = Files.list(tempDir.resolve("keys"))) {
+      assertEquals(5, files.filter(file -> file.toString().endsWith(".yaml")).count());
+    }
+  }
+
+  @Test
+  void outputsOutsideTheOutputRootAreRejected() throws Exception {
+    final Path outside = tempDir.resolveSibling(tempDir.getFileName() + "-outside");
+    assertEquals(400, post("/raw", "{\"count\":1,\"output\":\"../escape\"}").statusCode());
+    assertEquals(
+        400,
+        post("/raw", "{\"count\":1,\"output\":\"" + outside.toAbsolutePath() + "\"}")
+            .statusCode());
+    assertFalse(Files.exists(outside));
+    assertFalse(Files.exists(tempDir.resolveSibling("escape")));
+  }
+
+  @Test
+  void invalidRequestsAreRejected() throws Exception {
+    assertEquals(400, post("/raw", "{\"count\":0,\"output\":\"keys\"}").statusCode());
+    assertEquals(400, post("/raw", "{\"count\":").statusCode());
+    assertEquals(400, post("/hashicorp", "{\"count\":1,\"output\":\"keys\"}").statusCode());
+    assertEquals(405, get("/raw").statusCode());
+  }
+
+  @Test
+  void poolReportsItsWatermarks() throws Exception {
+    final HttpResponse<String> response = get("/pool");
+
+    assertEquals(200, response.statusCode());
+    final JsonNode body = OBJECT_MAPPER.readTree(response.body());
+    assertEquals(2, body.get("lowWatermark").asInt());
+    assertEquals(8, body.get("highWatermark").asInt());
+  }
+
+  private HttpResponse<String> post(final String path, final String body) throws Exception {
+    return httpClient.send(
+        HttpRequest.newBuilder(endpoint(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpResponse<String> get(final String path) throws Exception {
+    return httpClient.send(
+        HttpRequest.newBuilder(endpoint(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private URI endpoint(final String path) {
+    return URI.create(keyServer.getEndpoint() + path);
+  }
+}
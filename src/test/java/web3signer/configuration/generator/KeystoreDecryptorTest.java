@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+class KeystoreDecryptorTest {
+  private static final String PASSWORD = "password";
+  private static final BLSKeyPair KEY = BLSKeyPair.random(1);
+
+  @TempDir Path tempDir;
+
+  @Test
+  void pbkdf2AndScryptKeystoresAreDecrypted() throws IOException {
+    final KeystoreDecryptor decryptor = new KeystoreDecryptor(file -> PASSWORD);
+    final Path pbkdf2 = write("pbkdf2.json", KeystoreKdf.pbkdf2(1024, 1), false);
+    final Path scrypt = write("scrypt.json", KeystoreKdf.scrypt(1024, 8, 1, 1), false);
+
+    assertKey(decryptor.decrypt(pbkdf2));
+    assertKey(decryptor.decrypt(scrypt));
+  }
+
+  @Test
+  void keystoresAreSkippedWithAWrongPassword() throws IOException {
+    final Path keystore = write("keystore.json", KeystoreKdf.pbkdf2(1024, 1), false);
+    final Path withoutPublicKey = write("no-pubkey.json", KeystoreKdf.pbkdf2(1024, 1), true);
+    final KeystoreDecryptor decryptor = new KeystoreDecryptor(file -> "wrong");
+
+    assertEquals(Optional.empty(), decryptor.decrypt(keystore));
+    assertEquals(Optional.empty(), decryptor.decrypt(withoutPublicKey));
+  }
+
+  @Test
+  void keystoresWithoutPublicKeyAreCheckedByTheirChecksum() throws IOException {
+    final Path keystore = write("keystore.json", KeystoreKdf.pbkdf2(1024, 1), true);
+    assertKey(new KeystoreDecryptor(file -> PASSWORD).decrypt(keystore));
+  }
+
+  @Test
+  void unreadableKeystoresAreSkipped() throws IOException {
+    final Path notAKeystore = Files.writeString(tempDir.resolve("other.json"), "{\"a\":1}");
+    final KeystoreDecryptor decryptor =
+        new KeystoreDecryptor(
+            file -> {
+              throw new IllegalStateException("no password for " + file);
+            });
+
+    assertEquals(Optional.empty(), decryptor.decrypt(notAKeystore));
+    assertEquals(Optional.empty(), decryptor.decrypt(tempDir.resolve("missing.json")));
+    assertEquals(
+        Optional.empty(),
+        decryptor.decrypt(write("keystore.json", KeystoreKdf.pbkdf2(1024, 1), false)));
+  }
+
+  private Path write(final String fileName, final KeystoreKdf kdf, final boolean dropPublicKey)
+      throws IOException {
+    final byte[] keystore =
+        KeystoreEncryptor.create(kdf, PASSWORD)
+            .encrypt(KEY.getSecretKey().toBytes(), KEY.getPublicKey().toBytesCompressed());
+    String json = new String(keystore, UTF_8);
+    if (dropPublicKey) {
+      json = json.replaceAll("\"pubkey\":\"[0-9a-f]*\",", "");
+    }
+    return Files.writeString(tempDir.resolve(fileName), json);
+  }
+
+  private static void assertKey(final Optional<BLSKeyPair> decrypted) {
+    assertEquals(KEY.getPublicKey(), decrypted.orElseThrow().getPublicKey());
+    assertEquals(KEY.getSecretKey().toBytes(), decrypted.orElseThrow().getSecretKey().toBytes());
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import org.apache.tuweni.bytes.Bytes32;
+import org.apache.tuweni.bytes.Bytes48;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.bls.keystore.KeyStore;
+import tech.pegasys.teku.bls.keystore.KeyStoreLoader;
+import tech.pegasys.teku.bls.keystore.model.KeyStoreData;
+
+/** Round trips keystores written by {@link KeystoreEncryptor} through teku's keystore loader. */
+class KeystoreEncryptorTest {
+  private static final String PASSWORD = "pässwörd\u0007 𝔱𝔢𝔰𝔱";
+  private static final Bytes32 SECRET_KEY =
+      Bytes32.fromHexString("0x25295f0d1d592a90b333e26e85149708208e9f8e8bc18f6c77bd62f8ad7a6866");
+  private static final Bytes48 PUBLIC_KEY =
+      Bytes48.fromHexString(
+          "0xa99a76ed7796f7be22d5b7e85deeb7c5677e88e511e0b337618f8c4eb61349b4"
+              + "bf2d153f649f7b53359fe8b94a38e44c");
+
+  @TempDir Path tempDir;
+
+  @Test
+  void pbkdf2KeystoreDecryptsWithTeku() throws IOException {
+    assertRoundTrip(KeystoreEncryptor.create(KeystoreKdf.pbkdf2(1024, 1), PASSWORD), "pbkdf2");
+  }
+
+  @Test
+  void scryptKeystoreDecryptsWithTeku() throws IOException {
+    assertRoundTrip(
+        KeystoreEncryptor.create(KeystoreKdf.scrypt(1024, 8, 1, 1), PASSWORD), "scrypt");
+  }
+
+  @Test
+  void sharedKdfPbkdf2KeystoreDecryptsWithTeku() throws IOException {
+    assertRoundTrip(KeystoreEncryptor.sharedKdf(KeystoreKdf.pbkdf2(1024, 1), PASSWORD), "pbkdf2");
+  }
+
+  @Test
+  void sharedKdfScryptKeystoreDecryptsWithTeku() throws IOException {
+    assertRoundTrip(
+        KeystoreEncryptor.sharedKdf(KeystoreKdf.scrypt(1024, 8, 1, 1), PASSWORD), "scrypt");
+  }
+
+  @Test
+  void sharedKdfReusesSaltWithFreshIv() throws IOException {
+    final KeystoreEncryptor encryptor =
+        KeystoreEncryptor.sharedKdf(KeystoreKdf.pbkdf2(1024, 1), PASSWORD);
+    final KeyStoreData first = load(encryptor.encrypt(SECRET_KEY, PUBLIC_KEY));
+    final KeyStoreData second = load(encryptor.encrypt(SECRET_KEY, PUBLIC_KEY));
+
+    assertEquals(first.getKdf().getParam().getSalt(), second.getKdf().getParam().getSalt());
+    assertNotEquals(first.getCipher().getMessage(), second.getCipher().getMessage());
+    assertEquals(SECRET_KEY, Bytes32.wrap(KeyStore.decrypt(PASSWORD, second)));
+  }
+
+  @Test
+  void keystoresGetRandomVersion4Uuids() throws IOException {
+    final KeystoreEncryptor encryptor =
+        KeystoreEncryptor.sharedKdf(KeystoreKdf.pbkdf2(1024, 1), PASSWORD);
+    final UUID first = load(encryptor.encrypt(SECRET_KEY, PUBLIC_KEY)).getUuid();
+    final UUID second = load(encryptor.encrypt(SECRET_KEY, PUBLIC_KEY)).getUuid();
+
+    assertEquals(4, first.version());
+    assertEquals(2, first.variant());
+    assertNotEquals(first, second);
+  }
+
+  @Test
+  void perKeystoreKdfUsesFreshSalt() throws IOException {
+    final KeystoreEncryptor encryptor =
+        KeystoreEncryptor.create(KeystoreKdf.pbkdf2(1024, 1), PASSWORD);
+    final KeyStoreData first = load(encryptor.encrypt(SECRET_KEY, PUBLIC_KEY));
+    final KeyStoreData second = load(encryptor.encrypt(SECRET_KEY, PUBLIC_KEY));
+
+    assertNotEquals(first.getKdf().getParam().getSalt(), second.getKdf().getParam().getSalt());
+  }
+
+  private void assertRoundTrip(final KeystoreEncryptor encryptor, final String function)
+      throws IOException {
+    for (final Bytes32 secretKey :
+        List.of(SECRET_KEY, Bytes32.random(BLSKeyGenerator.getSecureRandom()))) {
+      final byte[] json = encryptor.encrypt(secretKey, PUBLIC_KEY);
+      assertTrue(new String(json, UTF_8).contains("\"function\":\"" + function + "\""));
+
+      final KeyStoreData keyStoreData = load(json);
+      assertEquals(PUBLIC_KEY, keyStoreData.getPubkey());
+      assertTrue(KeyStore.validatePassword(PASSWORD, keyStoreData));
+      assertFalse(KeyStore.validatePassword("wrong", keyStoreData));
+      assertEquals(secretKey, Bytes32.wrap(KeyStore.decrypt(PASSWORD, keyStoreData)));
+    }
+  }
+
+  private KeyStoreData load(final byte[] json) throws IOException {
+    final Path keystoreFile = Files.createTempFile(tempDir, "keystore", ".json");
+    Files.write(keystoreFile, json);
+    return KeyStoreLoader.loadFromFile(keystoreFile);
+  }
+}
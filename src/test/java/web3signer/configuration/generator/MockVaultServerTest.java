@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class MockVaultServerTest {
+  private static final String TOKEN = "token";
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+
+  @Test
+  void secretsAreStoredAndReadBack() throws Exception {
+    try (final MockVaultServer server = start(MockVaultServer.Behaviour.ideal())) {
+      final URI secret = URI.create(server.getSecretsEndpoint() + "/data/abc");
+      assertEquals(200, send(secret, TOKEN, "{\"data\":{\"value\":\"0x01\"}}").statusCode());
+
+      final HttpResponse<String> read = send(secret, TOKEN, null);
+      assertEquals(200, read.statusCode());
+      assertTrue(read.body().contains("\"data\":{\"data\":{\"value\":\"0x01\"}"), read.body());
+      assertEquals(1, server.getSecretCount());
+
+      assertEquals(404, send(URI.create(secret + "def"), TOKEN, null).statusCode());
+      assertEquals(400, send(secret, TOKEN, "{\"value\":1}").statusCode());
+      assertEquals(403, send(secret, "wrong", null).statusCode());
+      final URI init = server.getSecretsEndpoint().resolve("/v1/sys/init");
+      assertEquals(200, send(init, null, null).statusCode());
+    }
+  }
+
+  @Test
+  void errorsAndThrottlingAreInjectedAtTheirRates() throws Exception {
+    final MockVaultServer.Behaviour behaviour =
+        new MockVaultServer.Behaviour(LatencyDistribution.NONE, 0.2, 0.3, 0, 5);
+    try (final MockVaultServer server = start(behaviour)) {
+      final List<Integer> statuses = writeSecrets(server, paths(500));
+      final long throttled = statuses.stream().filter(status -> status == 429).count();
+      final long errors = statuses.stream().filter(status -> status == 500).count();
+
+      // 30% of requests throttled, 20% of the remaining 70% failed
+      assertTrue(throttled > 100 && throttled < 200, "throttled " + throttled);
+      assertTrue(errors > 35 && errors < 105, "errors " + errors);
+      assertEquals(500 - throttled - errors, server.getSecretCount());
+    }
+  }
+
+  @Test
+  void requestsAreDelayedByTheLatencyDistribution() throws Exception {
+    final MockVaultServer.Behaviour behaviour =
+        new MockVaultServer.Behaviour(
+            new LatencyDistribution(LatencyDistribution.Kind.FIXED, 50, 0), 0, 0, 0, 0);
+    try (final MockVaultServer server = start(behaviour)) {
+      final long startNanos = System.nanoTime();
+      writeSecrets(server, paths(1));
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) >= 50);
+    }
+  }
+
+  @Test
+  void seedInjectsTheSameFaultsIntoTheSameRequests() throws Exception {
+    final MockVaultServer.Behaviour behaviour =
+        new MockVaultServer.Behaviour(LatencyDistribution.NONE, 0.3, 0.3, 0, 11);
+    final List<String> paths = paths(200);
+    final List<String> shuffled = new ArrayList<>(paths);
+    Collections.shuffle(shuffled, new Random(1));
+    try (final MockVaultServer first = start(behaviour);
+        final MockVaultServer second = start(behaviour)) {
+      final List<Integer> firstStatuses = writeSecrets(first, paths);
+      final List<Integer> shuffledStatuses = writeSecrets(second, shuffled);
+
+      for (int i = 0; i < shuffled.size(); i++) {
+        assertEquals(
+            firstStatuses.get(paths.indexOf(shuffled.get(i))),
+            shuffledStatuses.get(i),
+            shuffled.get(i));
+      }
+      // a retry is a new draw
+      assertNotEquals(shuffledStatuses, writeSecrets(second, shuffled));
+    }
+  }
+
+  private MockVaultServer start(final MockVaultServer.Behaviour behaviour) throws IOException {
+    return new MockVaultServer(new InetSocketAddress("127.0.0.1", 0), TOKEN, behaviour).start();
+  }
+
+  private static List<String> paths(final int count) {
+    return IntStream.range(0, count).mapToObj(i -> "/data/secret-" + i).toList();
+  }
+
+  private List<Integer> writeSecrets(final MockVaultServer server, final List<String> paths)
+      throws Exception {
+    final List<Integer> statuses = new ArrayList<>();
+    for (final String path : paths) {
+      final URI uri = URI.create(server.getSecretsEndpoint() + path);
+      statuses.add(send(uri, TOKEN, "{\"data\":{\"value\":\"0x01\"}}").statusCode());
+    }
+    return statuses;
+  }
+
+  private HttpResponse<String> send(final URI uri, final String token, final String body)
+      throws Exception {
+    final HttpRequest.Builder request = HttpRequest.newBuilder(uri);
+    if (token != null) {
+      request.header("X-Vault-Token", token);
+    }
+    if (body != null) {
+      request.POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+    return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+}
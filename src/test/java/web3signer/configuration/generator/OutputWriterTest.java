@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OutputWriterTest {
+  @TempDir Path tempDir;
+
+  @Test
+  void shardedPathUsesTwoCharacterPrefixes() {
+    final OutputWriter flat = new OutputWriter(tempDir, 1, 0);
+    final OutputWriter sharded = new OutputWriter(tempDir, 1, 2);
+    try {
+      assertEquals(Path.of("abcdef.yaml"), flat.shardedPath("abcdef.yaml"));
+      assertEquals(Path.of("ab", "cd", "abcdef.yaml"), sharded.shardedPath("abcdef.yaml"));
+      // a prefix never takes the whole name
+      assertEquals(Path.of("ab", "abcd"), sharded.shardedPath("abcd"));
+      assertEquals(Path.of("ab"), sharded.shardedPath("ab"));
+    } finally {
+      flat.close();
+      sharded.close();
+    }
+  }
+
+  @Test
+  void filesAreWrittenIntoShardDirectories() throws IOException {
+    final Random random = new Random(3);
+    final String[] names = new String[500];
+    final OutputWriter writer = new OutputWriter(tempDir, 4, 2);
+    for (int i = 0; i < names.length; i++) {
+      final byte[] name = new byte[8];
+      random.nextBytes(name);
+      names[i] = HexFormat.of().formatHex(name) + ".yaml";
+      writer.write(writer.shardedPath(names[i]), names[i].getBytes(UTF_8));
+    }
+    writer.close();
+
+    assertEquals(0, writer.getFailures());
+    for (final String name : names) {
+      final Path file = tempDir.resolve(name.substring(0, 2)).resolve(name.substring(2, 4));
+      assertEquals(name, Files.readString(file.resolve(name), UTF_8));
+    }
+  }
+
+  @Test
+  void failedWritesAreCountedAndDontStopTheWriter() throws IOException {
+    // a file where the shard directory of the first file should go
+    Files.writeString(tempDir.resolve("ab"), "not a directory");
+    final OutputWriter writer = new OutputWriter(tempDir, 2, 1);
+    writer.write(writer.shardedPath("abcdef.yaml"), new byte[] {1});
+    writer.write(writer.shardedPath("cdef01.yaml"), new byte[] {2});
+    writer.close();
+
+    assertEquals(1, writer.getFailures());
+    assertEquals(2, Files.readAllBytes(tempDir.resolve("cd").resolve("cdef01.yaml"))[0]);
+  }
+}
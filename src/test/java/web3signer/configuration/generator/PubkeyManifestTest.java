@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.tuweni.bytes.Bytes48;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.bls.BLSPublicKey;
+
+class PubkeyManifestTest {
+  private final Random random = new Random(42);
+
+  @TempDir Path tempDir;
+
+  @Test
+  void lookupFindsEveryEntryAndMissesOthers() throws IOException {
+    final PubkeyManifest.Builder builder = PubkeyManifest.builder();
+    final List<Bytes48> publicKeys = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final Bytes48 publicKey = randomPublicKey();
+      publicKeys.add(publicKey);
+      builder.add(
+          BLSPublicKey.fromBytesCompressed(publicKey),
+          PubkeyManifest.Type.RAW,
+          Path.of("ab", "cd", i + ".yaml"));
+    }
+    final PubkeyManifest manifest = write(builder);
+
+    assertEquals(publicKeys.size(), manifest.size());
+    for (int i = 0; i < publicKeys.size(); i++) {
+      final Optional<PubkeyManifest.Entry> entry = manifest.lookup(publicKeys.get(i));
+      assertTrue(entry.isPresent(), "key " + i);
+      assertEquals(publicKeys.get(i), entry.get().publicKey());
+      assertEquals(PubkeyManifest.Type.RAW, entry.get().type());
+      assertEquals(Path.of("ab", "cd", i + ".yaml").toString(), entry.get().file());
+    }
+    for (int i = 0; i < 100; i++) {
+      assertEquals(Optional.empty(), manifest.lookup(randomPublicKey()));
+    }
+  }
+
+  @Test
+  void lookupFindsFirstAndLastKeys() throws IOException {
+    final Bytes48 lowest = Bytes48.wrap(new byte[48]);
+    final byte[] highestBytes = new byte[48];
+    Arrays.fill(highestBytes, (byte) 0xff);
+    final Bytes48 highest = Bytes48.wrap(highestBytes);
+    final Bytes48 middle = randomPublicKey();
+
+    final PubkeyManifest.Builder builder = PubkeyManifest.builder();
+    for (final Bytes48 publicKey : List.of(middle, highest, lowest)) {
+      builder.add(
+          BLSPublicKey.fromBytesCompressed(publicKey),
+          PubkeyManifest.Type.KEYSTORE,
+          Path.of(publicKey.toUnprefixedHexString() + ".json"));
+    }
+    final PubkeyManifest manifest = write(builder);
+
+    final List<PubkeyManifest.Entry> entries = manifest.entries();
+    assertEquals(
+        List.of(lowest, middle, highest),
+        entries.stream().map(PubkeyManifest.Entry::publicKey).toList());
+    for (final Bytes48 publicKey : List.of(lowest, middle, highest)) {
+      assertEquals(publicKey, manifest.lookup(publicKey).orElseThrow().publicKey());
+    }
+  }
+
+  @Test
+  void emptyManifestHasNoEntries() throws IOException {
+    final PubkeyManifest manifest = write(PubkeyManifest.builder());
+
+    assertEquals(0, manifest.size());
+    assertEquals(Optional.empty(), manifest.lookup(randomPublicKey()));
+  }
+
+  @Test
+  void firstEntryAddedForAKeyIsKept() throws IOException {
+    final Bytes48 publicKey = randomPublicKey();
+    final PubkeyManifest.Builder builder = PubkeyManifest.builder();
+    builder.add(
+        BLSPublicKey.fromBytesCompressed(randomPublicKey()),
+        PubkeyManifest.Type.RAW,
+        Path.of("other.yaml"));
+    builder.add(
+        BLSPublicKey.fromBytesCompressed(publicKey), PubkeyManifest.Type.RAW, Path.of("a.yaml"));
+    builder.add(
+        BLSPublicKey.fromBytesCompressed(publicKey), PubkeyManifest.Type.RAW, Path.of("b.yaml"));
+    final PubkeyManifest manifest = write(builder);
+
+    assertEquals(2, manifest.size());
+    assertEquals("a.yaml", manifest.lookup(publicKey).orElseThrow().file());
+  }
+
+  @Test
+  void hashicorpEntriesKeepVaultLocation() throws IOException {
+    final Bytes48 first = randomPublicKey();
+    final Bytes48 second = randomPublicKey();
+    final PubkeyManifest.Builder builder = PubkeyManifest.builder();
+    // keys sharing a bundle file and a vault secret
+    builder.add(
+        BLSPublicKey.fromBytesCompressed(first),
+        PubkeyManifest.Type.HASHICORP,
+        Path.of("bundle.yaml"),
+        "/v1/secret/data/batch",
+        "key-0");
+    builder.add(
+        BLSPublicKey.fromBytesCompressed(second),
+        PubkeyManifest.Type.HASHICORP,
+        Path.of("bundle.yaml"),
+        "/v1/secret/data/batch",
+        "key-1");
+    final PubkeyManifest manifest = write(builder);
+
+    assertEquals(
+        new PubkeyManifest.Entry(
+            first, PubkeyManifest.Type.HASHICORP, "bundle.yaml", "/v1/secret/data/batch", "key-0"),
+        manifest.lookup(first).orElseThrow());
+    assertEquals(
+        new PubkeyManifest.Entry(
+            second, PubkeyManifest.Type.HASHICORP, "bundle.yaml", "/v1/secret/data/batch", "key-1"),
+        manifest.lookup(second).orElseThrow());
+  }
+
+  @Test
+  void addAllCarriesEntriesOfAnEarlierManifestOver() throws IOException {
+    final Bytes48 existing = randomPublicKey();
+    final PubkeyManifest.Builder previousBuilder = PubkeyManifest.builder();
+    previousBuilder.add(
+        BLSPublicKey.fromBytesCompressed(existing),
+        PubkeyManifest.Type.KEYSTORE,
+        Path.of("existing.json"));
+    final PubkeyManifest previous = write(previousBuilder);
+
+    final Bytes48 added = randomPublicKey();
+    final PubkeyManifest.Builder builder = PubkeyManifest.builder();
+    builder.addAll(previous);
+    builder.add(
+        BLSPublicKey.fromBytesCompressed(existing),
+        PubkeyManifest.Type.KEYSTORE,
+        Path.of("duplicate.json"));
+    builder.add(
+        BLSPublicKey.fromBytesCompressed(added), PubkeyManifest.Type.KEYSTORE, Path.of("new.json"));
+    final PubkeyManifest manifest = write(builder);
+
+    assertEquals(2, manifest.size());
+    assertEquals("existing.json", manifest.lookup(existing).orElseThrow().file());
+    assertEquals("new.json", manifest.lookup(added).orElseThrow().file());
+  }
+
+  @Test
+  void concurrentAddsAreAllKept() throws Exception {
+    final PubkeyManifest.Builder builder = PubkeyManifest.builder();
+    final List<Bytes48> publicKeys = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      publicKeys.add(randomPublicKey());
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < publicKeys.size(); i++) {
+      final int index = i;
+      executor.execute(
+          () ->
+              builder.add(
+                  BLSPublicKey.fromBytesCompressed(publicKeys.get(index)),
+                  PubkeyManifest.Type.RAW,
+                  Path.of(index + ".yaml")));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    final PubkeyManifest manifest = write(builder);
+
+    assertEquals(publicKeys.size(), manifest.size());
+    final List<PubkeyManifest.Entry> entries = manifest.entries();
+    for (int i = 1; i < entries.size(); i++) {
+      assertTrue(
+          Arrays.compareUnsigned(
+                  entries.get(i - 1).publicKey().toArrayUnsafe(),
+                  entries.get(i).publicKey().toArrayUnsafe())
+              < 0);
+    }
+    for (int i = 0; i < publicKeys.size(); i += 97) {
+      assertEquals(i + ".yaml", manifest.lookup(publicKeys.get(i)).orElseThrow().file());
+    }
+  }
+
+  @Test
+  void openRejectsFilesThatAreNotManifests() throws IOException {
+    final Path notAManifest = tempDir.resolve("not-a-manifest");
+    Files.write(notAManifest, new byte[32]);
+    assertThrows(IOException.class, () -> PubkeyManifest.open(notAManifest));
+
+    final PubkeyManifest.Builder builder = PubkeyManifest.builder();
+    builder.add(
+        BLSPublicKey.fromBytesCompressed(randomPublicKey()),
+        PubkeyManifest.Type.RAW,
+        Path.of("a.yaml"));
+    final byte[] manifest = builder.build();
+    final Path corrupt = tempDir.resolve("corrupt");
+    // header of a single entry manifest without its record
+    Files.write(corrupt, Arrays.copyOf(manifest, 16));
+    assertThrows(IOException.class, () -> PubkeyManifest.open(corrupt));
+  }
+
+  private PubkeyManifest write(final PubkeyManifest.Builder builder) throws IOException {
+    final Path manifestFile = Files.createTempFile(tempDir, "pubkeys", ".manifest");
+    Files.write(manifestFile, builder.build());
+    return PubkeyManifest.open(manifestFile);
+  }
+
+  private Bytes48 randomPublicKey() {
+    final byte[] publicKey = new byte[48];
+    random.nextBytes(publicKey);
+    return Bytes48.wrap(publicKey);
+  }
+}
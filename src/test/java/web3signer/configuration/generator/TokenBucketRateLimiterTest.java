@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+  private long nanos = 1_000_000_000L;
+
+  @Test
+  void burstOfOneSecondThenRefillsAtRate() {
+    final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, this::now);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(limiter.tryAcquire(), "token " + i);
+    }
+    assertFalse(limiter.tryAcquire());
+
+    advanceMillis(50);
+    assertFalse(limiter.tryAcquire());
+    advanceMillis(50);
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+  }
+
+  @Test
+  void refillIsCappedAtBurst() {
+    final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, this::now);
+    advanceMillis(60_000);
+    for (int i = 0; i < 10; i++) {
+      assertTrue(limiter.tryAcquire(), "token " + i);
+    }
+    assertFalse(limiter.tryAcquire());
+  }
+
+  @Test
+  void reservationsGoIntoDebtAndWaitItOut() {
+    final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, this::now);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(0, limiter.reserve());
+    }
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.reserve());
+    // nothing is available until the debt is paid off
+    advanceMillis(200);
+    assertFalse(limiter.tryAcquire());
+    advanceMillis(100);
+    assertTrue(limiter.tryAcquire());
+  }
+
+  @Test
+  void ratesBelowOnePerSecondAllowOneRequestAtOnce() {
+    final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.5, this::now);
+    assertEquals(0, limiter.reserve());
+    assertEquals(TimeUnit.SECONDS.toNanos(2), limiter.reserve());
+  }
+
+  @Test
+  void zeroRateIsUnlimited() {
+    final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0, this::now);
+    assertTrue(limiter.isUnlimited());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(0, limiter.reserve());
+      assertTrue(limiter.tryAcquire());
+    }
+  }
+
+  private long now() {
+    return nanos;
+  }
+
+  private void advanceMillis(final long millis) {
+    nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+}
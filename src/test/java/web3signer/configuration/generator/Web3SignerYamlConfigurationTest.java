@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.pegasys.teku.bls.BLSKeyPair;
+
+class Web3SignerYamlConfigurationTest {
+  private static final BLSKeyPair KEY_1 = BLSKeyPair.random(1);
+  private static final BLSKeyPair KEY_2 = BLSKeyPair.random(2);
+  private static final BLSKeyPair KEY_3 = BLSKeyPair.random(3);
+
+  @TempDir Path tempDir;
+
+  @Test
+  void writtenCountExcludesFilesThatFailedToWrite() {
+    final Web3SignerYamlConfiguration configuration =
+        configurationFailingOn(fileName(KEY_2, ".yaml"));
+    try (configuration) {
+      assertTrue(configuration.createRawYamlConfigurationFile(KEY_1));
+      assertTrue(configuration.createRawYamlConfigurationFile(KEY_2));
+      assertTrue(configuration.createRawYamlConfigurationFile(KEY_3));
+    }
+    assertEquals(2, configuration.getWrittenCount());
+  }
+
+  @Test
+  void keystoreKeyIsCountedOnceBothOfItsFilesAreWritten() {
+    final KeystoreEncryptor keystoreEncryptor =
+        KeystoreEncryptor.sharedKdf(
+            KeystoreKdf.pbkdf2(1024, 1), Web3SignerYamlConfiguration.KEYSTORE_PASSWORD);
+    final Web3SignerYamlConfiguration configuration =
+        configurationFailingOn(fileName(KEY_1, ".yaml"), fileName(KEY_2, ".json"));
+    try (configuration) {
+      configuration.createKeystoreConfigurationFile(KEY_1, true, tempDir, keystoreEncryptor);
+      configuration.createKeystoreConfigurationFile(KEY_2, true, tempDir, keystoreEncryptor);
+      configuration.createKeystoreConfigurationFile(KEY_3, true, tempDir, keystoreEncryptor);
+    }
+    assertEquals(1, configuration.getWrittenCount());
+  }
+
+  private Web3SignerYamlConfiguration configurationFailingOn(final String... fileNames) {
+    final Set<String> failing = Set.of(fileNames);
+    final OutputTarget target =
+        new DirectoryOutputTarget(tempDir) {
+          @Override
+          public void write(final Path relativePath, final byte[] content) throws IOException {
+            if (failing.contains(relativePath.getFileName().toString())) {
+              throw new IOException("failing " + relativePath);
+            }
+            super.write(relativePath, content);
+          }
+        };
+    return new Web3SignerYamlConfiguration(
+        tempDir, new OutputWriter(target, 1, 0), 1, FileNaming.PUBKEY);
+  }
+
+  private static String fileName(final BLSKeyPair blsKeyPair, final String extension) {
+    return FileNaming.PUBKEY.fileName(blsKeyPair.getPublicKey()) + extension;
+  }
+}
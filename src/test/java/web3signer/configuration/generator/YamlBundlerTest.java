@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class YamlBundlerTest {
+  private record Written(String fileName, String content) {}
+
+  private final List<Written> written = new ArrayList<>();
+
+  @Test
+  void documentsArePackedIntoBundlesNamedAfterTheirFirstDocument() {
+    final YamlBundler bundler = new YamlBundler(3, this::write);
+    for (int i = 0; i < 7; i++) {
+      bundler.add("file-" + i, document(i), null);
+    }
+    assertEquals(2, written.size());
+    bundler.flush();
+    bundler.flush();
+
+    assertEquals(
+        List.of(
+            new Written("file-0", "---\nkey: 0\n---\nkey: 1\n---\nkey: 2\n"),
+            new Written("file-3", "---\nkey: 3\n---\nkey: 4\n---\nkey: 5\n"),
+            new Written("file-6", "---\nkey: 6\n")),
+        written);
+  }
+
+  @Test
+  void documentCallbacksGetThePathOfTheirBundle() {
+    final List<Path> paths = new ArrayList<>();
+    final YamlBundler bundler =
+        new YamlBundler(
+            2, (fileName, content, onWritten) -> onWritten.accept(Path.of(fileName + ".yaml")));
+    bundler.add("a", document(0), paths::add);
+    bundler.add("b", document(1), null);
+    bundler.add("c", document(2), paths::add);
+    bundler.add("d", document(3), paths::add);
+    bundler.flush();
+
+    assertEquals(List.of(Path.of("a.yaml"), Path.of("c.yaml"), Path.of("c.yaml")), paths);
+  }
+
+  @Test
+  void concurrentlyAddedDocumentsAreAllBundled() throws InterruptedException {
+    final AtomicInteger documents = new AtomicInteger();
+    final YamlBundler bundler =
+        new YamlBundler(
+            7,
+            (fileName, content, onWritten) ->
+                documents.addAndGet(new String(content, UTF_8).split("---\n").length - 1));
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int thread = 0; thread < 8; thread++) {
+      executor.execute(
+          () -> {
+            for (int i = 0; i < 1000; i++) {
+              bundler.add("file", document(i), null);
+            }
+          });
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+    bundler.flush();
+
+    assertEquals(8000, documents.get());
+  }
+
+  private void write(final String fileName, final byte[] content, final Consumer<Path> onWritten) {
+    written.add(new Written(fileName, new String(content, UTF_8)));
+  }
+
+  private static byte[] document(final int value) {
+    return ("key: " + value + "\n").getBytes(UTF_8);
+  }
+}
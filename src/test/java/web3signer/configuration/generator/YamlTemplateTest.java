@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Usman Saleem.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package web3signer.configuration.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+/** Golden tests comparing the pre-rendered templates with what SnakeYAML dumps. */
+class YamlTemplateTest {
+  private static final List<String> SCALARS =
+      List.of(
+          "plain",
+          "0x8f3a4b2c",
+          "yes",
+          "no",
+          "Yes",
+          "NO",
+          "on",
+          "off",
+          "true",
+          "False",
+          "null",
+          "Null",
+          "~",
+          "",
+          " leading space",
+          "trailing space ",
+          "42",
+          "1_000",
+          "0o17",
+          "3.14",
+          "1e10",
+          ".inf",
+          ".NaN",
+          "2026-10-17",
+          "12:30:00",
+          "42abc",
+          "1.2.3",
+          "-",
+          "-1",
+          "--flag",
+          "a:b",
+          "a: b",
+          "key:",
+          ":",
+          "#comment",
+          "a #b",
+          "a#b",
+          "'quoted'",
+          "\"double\"",
+          "multi\nline",
+          "tab\there",
+          "@at",
+          "`tick",
+          "!tag",
+          "&anchor",
+          "*alias",
+          "[list]",
+          "{map}",
+          "a,b",
+          "%percent",
+          "|",
+          ">",
+          "?",
+          "/var/lib/web3signer/keys/0a1b.json",
+          "C:\\keys\\password.txt",
+          "/keys/mü/ключи/鍵.json",
+          "émoji 🔑");
+
+  @TempDir Path tempDir;
+
+  @Test
+  void fieldValuesMatchSnakeYaml() {
+    final YamlTemplate template = YamlTemplate.builder().field("value").build();
+    for (final String scalar : SCALARS) {
+      assertEquals(dump(Map.of("value", scalar)), render(template, scalar), scalar);
+    }
+  }
+
+  @Test
+  void constantValuesMatchSnakeYaml() {
+    for (final String scalar : SCALARS) {
+      final YamlTemplate template = YamlTemplate.builder().constant("value", scalar).build();
+      assertEquals(dump(Map.of("value", scalar)), render(template), scalar);
+    }
+    final YamlTemplate intTemplate = YamlTemplate.builder().constant("port", 8200).build();
+    assertEquals(dump(Map.of("port", 8200)), render(intTemplate));
+  }
+
+  @Test
+  void rawConfigurationMatchesSnakeYaml() {
+    final YamlTemplate template =
+        YamlTemplate.builder().constant("type", "file-raw").field("privateKey").build();
+    final String privateKey = "0x25295f0d1d592a90b333e26e85149708208e9f8e8bc18f6c77bd62f8ad7a6866";
+
+    final Map<String, Object> expected = new LinkedHashMap<>();
+    expected.put("type", "file-raw");
+    expected.put("privateKey", privateKey);
+    assertEquals(dump(expected), render(template, privateKey));
+  }
+
+  @Test
+  void keystoreConfigurationMatchesSnakeYaml() {
+    for (final String keystoreDir : List.of("/var/lib/keys", "/var/lib/my keys", "/keys: #1")) {
+      try (final Web3SignerYamlConfiguration configuration =
+          new Web3SignerYamlConfiguration(tempDir)) {
+        final Path keystoreFile = Path.of("8f3a4b2c.json");
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("type", "file-keystore");
+        expected.put("keyType", "BLS");
+        expected.put("keystoreFile", Path.of(keystoreDir).resolve(keystoreFile).toString());
+        expected.put("keystorePasswordFile", Path.of(keystoreDir, "password.txt").toString());
+
+        assertEquals(
+            dump(expected),
+            new String(
+                configuration.getKeystoreYamlConfiguration(Path.of(keystoreDir), keystoreFile),
+                UTF_8),
+            keystoreDir);
+      }
+    }
+  }
+
+  @Test
+  void hashicorpConfigurationWithoutTlsMatchesSnakeYaml() {
+    assertHashicorpConfiguration(
+        URI.create("http://127.0.0.1:8200/v1/secret/data/8f3a4b2c"), "value", null, null);
+    assertHashicorpConfiguration(
+        URI.create("http://vault.local:8200/v1/secret/data/yes"), "null", null, "");
+    assertHashicorpConfiguration(
+        URI.create("http://127.0.0.1:8200/v1/secret/data/8f3a4b2c"), "42", null, "10.0.0.7");
+  }
+
+  @Test
+  void hashicorpConfigurationWithTlsMatchesSnakeYaml() {
+    assertHashicorpConfiguration(
+        URI.create("https://vault.local:8200/v1/secret/data/8f3a4b2c"),
+        "value",
+        Path.of("/etc/web3signer/knownhosts"),
+        null);
+    assertHashicorpConfiguration(
+        URI.create("https://127.0.0.1:8200/v1/secret/data/8f3a4b2c"),
+        "key:0",
+        Path.of("/etc/web3signer/known hosts #1"),
+        "vault.internal");
+  }
+
+  @Test
+  void hashicorpConfigurationWithTlsButNoKnownHostsMatchesSnakeYaml() {
+    assertHashicorpConfiguration(
+        URI.create("https://vault.local:8200/v1/secret/data/8f3a4b2c"), "value", null, null);
+  }
+
+  private void assertHashicorpConfiguration(
+      final URI uri,
+      final String keyName,
+      final Path tlsKnownHosts,
+      final String overrideVaultHost) {
+    for (final String token : List.of("hvs.CAESIJ3fk", "yes", "12345", "s:3cr#t")) {
+      // the map the configuration was built from before it was rendered from a template
+      final Map<String, Object> expected = new HashMap<>();
+      expected.put("type", "hashicorp");
+      expected.put("keyPath", uri.getPath());
+      expected.put("keyName", keyName);
+      expected.put(
+          "serverHost",
+          overrideVaultHost == null || overrideVaultHost.isBlank()
+              ? uri.getHost()
+              : overrideVaultHost);
+      expected.put("serverPort", uri.getPort());
+      expected.put("token", token);
+      if ("https".equalsIgnoreCase(uri.getScheme())) {
+        expected.put("tlsEnabled", "true");
+        if (tlsKnownHosts != null) {
+          expected.put("tlsKnownServersPath", tlsKnownHosts.toString());
+        }
+      } else {
+        expected.put("tlsEnabled", "false");
+      }
+
+      try (final Web3SignerYamlConfiguration configuration =
+          new Web3SignerYamlConfiguration(tempDir)) {
+        assertEquals(
+            dump(expected),
+            new String(
+                configuration.getHashicorpYamlConfiguration(
+                    uri, keyName, token, tlsKnownHosts, overrideVaultHost),
+                UTF_8),
+            uri + " " + keyName + " " + token);
+      }
+    }
+  }
+
+  private static String render(final YamlTemplate template, final String... values) {
+    return new String(template.render(values), UTF_8);
+  }
+
+  private static String dump(final Map<String, Object> map) {
+    final DumperOptions dumperOptions = new DumperOptions();
+    dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+    return new Yaml(dumperOptions).dump(map);
+  }
+}